@@ -0,0 +1,252 @@
+package jb.collections;
+
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
+import jb.launcher.Scaling;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.buffer.MutableRoaringBitmap;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Readers querying a shared bitmap while writers add ids to it. Every group has a {@code read} and a {@code write}
+ * member; {@link #main} sweeps reader/writer splits and total thread counts from 1 to all available cores through
+ * {@code threadGroups}, so the {@code @GroupThreads} values below are only the default split. Shares that round to
+ * the same split at small thread counts run once, headed by the split they actually measure.
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentRoaringBitmapTest {
+
+    private static final int PROBES = 1 << 12;
+    private static final int STRIPES = 1 << 16;
+    private static final double[] WRITER_SHARES = {0.1, 0.5};
+
+    public static void main(String[] args) throws RunnerException {
+        Set<List<Integer>> splits = new LinkedHashSet<>();
+        for (int threads : Scaling.levels(Runtime.getRuntime().availableProcessors())) {
+            for (double writerShare : WRITER_SHARES) {
+                int writers = threads == 1 ? 0 : Math.max(1, (int) Math.round(threads * writerShare));
+                splits.add(Arrays.asList(threads - writers, writers));
+            }
+        }
+        for (List<Integer> split : splits) {
+            int readers = split.get(0);
+            int writers = split.get(1);
+            System.out.printf("%n# Split: %d readers, %d writers (%.0f%% writers)%n",
+                    readers, writers, 100.0 * writers / (readers + writers));
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentRoaringBitmapTest.class.getSimpleName())
+                    .threadGroups(readers, writers)
+                    .forks(1)
+                    .warmupIterations(1)
+                    .measurementIterations(1)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"1000000"})
+        int size;
+        @Param({"UNIFORM", "CLUSTERED"})
+        Distribution distribution;
+
+        RoaringBitmap roaringBitmap;
+        int[] probes;
+
+        @Setup
+        public void setup() {
+            Random random = Datasets.random();
+            roaringBitmap = Datasets.bitmap(distribution, size, 0);
+            roaringBitmap.runOptimize();
+            probes = new int[PROBES];
+            for (int i = 0; i < PROBES; i++) {
+                probes[i] = i % 2 == 0 ? roaringBitmap.select(random.nextInt(size)) : random.nextInt(Integer.MAX_VALUE);
+            }
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int next;
+
+        int probe(Provider provider) {
+            return provider.probes[next++ & (PROBES - 1)];
+        }
+
+        int id() {
+            return ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+        }
+
+    }
+
+    @State(Scope.Group)
+    public static class LockedBitmap {
+
+        RoaringBitmap roaringBitmap;
+        final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        @Setup(Level.Iteration)
+        public void setup(Provider provider) {
+            roaringBitmap = provider.roaringBitmap.clone();
+        }
+
+        boolean contains(int id) {
+            lock.readLock().lock();
+            try {
+                return roaringBitmap.contains(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(int id) {
+            lock.writeLock().lock();
+            try {
+                roaringBitmap.add(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+    }
+
+    @State(Scope.Group)
+    public static class CopyOnWriteBitmap {
+
+        final AtomicReference<ImmutableRoaringBitmap> reference = new AtomicReference<>();
+
+        @Setup(Level.Iteration)
+        public void setup(Provider provider) {
+            reference.set(new MutableRoaringBitmap(provider.roaringBitmap));
+        }
+
+        boolean contains(int id) {
+            return reference.get().contains(id);
+        }
+
+        void add(int id) {
+            ImmutableRoaringBitmap current;
+            MutableRoaringBitmap next;
+            do {
+                current = reference.get();
+                next = current.toMutableRoaringBitmap();
+                next.add(id);
+            } while (!reference.compareAndSet(current, next));
+        }
+
+    }
+
+    @State(Scope.Group)
+    public static class StripedBitmap {
+
+        final RoaringBitmap[] stripes = new RoaringBitmap[STRIPES];
+        final ReadWriteLock[] locks = new ReadWriteLock[STRIPES];
+
+        @Setup(Level.Iteration)
+        public void setup(Provider provider) {
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new RoaringBitmap();
+                locks[i] = new ReentrantReadWriteLock();
+            }
+            PeekableIntIterator iterator = provider.roaringBitmap.getIntIterator();
+            while (iterator.hasNext()) {
+                int id = iterator.next();
+                stripes[id >>> 16].add(id);
+            }
+        }
+
+        boolean contains(int id) {
+            int stripe = id >>> 16;
+            locks[stripe].readLock().lock();
+            try {
+                return stripes[stripe].contains(id);
+            } finally {
+                locks[stripe].readLock().unlock();
+            }
+        }
+
+        void add(int id) {
+            int stripe = id >>> 16;
+            locks[stripe].writeLock().lock();
+            try {
+                stripes[stripe].add(id);
+            } finally {
+                locks[stripe].writeLock().unlock();
+            }
+        }
+
+    }
+
+    @Benchmark
+    @Group("rwLock")
+    @GroupThreads(3)
+    public void rwLock_read(LockedBitmap bitmap, Provider provider, Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(bitmap.contains(cursor.probe(provider)));
+    }
+
+    @Benchmark
+    @Group("rwLock")
+    @GroupThreads(1)
+    public void rwLock_write(LockedBitmap bitmap, Cursor cursor) {
+        bitmap.add(cursor.id());
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(3)
+    public void copyOnWrite_read(CopyOnWriteBitmap bitmap, Provider provider, Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(bitmap.contains(cursor.probe(provider)));
+    }
+
+    @Benchmark
+    @Group("copyOnWrite")
+    @GroupThreads(1)
+    public void copyOnWrite_write(CopyOnWriteBitmap bitmap, Cursor cursor) {
+        bitmap.add(cursor.id());
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(3)
+    public void striped_read(StripedBitmap bitmap, Provider provider, Cursor cursor, Blackhole blackhole) {
+        blackhole.consume(bitmap.contains(cursor.probe(provider)));
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(1)
+    public void striped_write(StripedBitmap bitmap, Cursor cursor) {
+        bitmap.add(cursor.id());
+    }
+
+}
@@ -0,0 +1,36 @@
+package jb.collections;
+
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Retained heap of benchmark fixtures, walked with JOL and printed to the forked VM's output.
+ */
+public final class Footprint {
+
+    /**
+     * Boxed collections above this many elements take minutes and gigabytes to walk, so they are not measured.
+     */
+    static final long MAX_BOXED_ELEMENTS = 10_000_000;
+
+    private Footprint() {
+    }
+
+    public static long of(Object... roots) {
+        return GraphLayout.parseInstance(roots).totalSize();
+    }
+
+    public static void report(String label, Object root, long elements) {
+        long bytes = of(root);
+        System.out.printf("%nfootprint %s: %d bytes, %.2f bytes/element%n",
+                label, bytes, (double) bytes / Math.max(1, elements));
+    }
+
+    public static void reportBoxed(String label, Object root, long elements) {
+        if (elements > MAX_BOXED_ELEMENTS) {
+            System.out.printf("%nfootprint %s: skipped (%d elements)%n", label, elements);
+            return;
+        }
+        report(label, root, elements);
+    }
+
+}
@@ -0,0 +1,311 @@
+package jb.collections;
+
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
+import org.eclipse.collections.api.iterator.IntIterator;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Primitive int set backends compared on identical data: Roaring, Eclipse {@link IntHashSet}, {@link BitSet}
+ * and a sorted {@code int[]} searched with binary search. A {@link BitSet} is as large as its highest id, so it only
+ * runs where both sets span at most {@value #BITS_PER_ELEMENT} bits per element - no larger than the sorted array -
+ * which among the distributions here is {@link Distribution#COMPACT}; elsewhere the {@code bitSet_*} benchmarks fail
+ * fast in setup. Misses are drawn inside populated containers, see {@link Probes#misses}. Forks get a 4 GB heap for
+ * the two 5e7-element fixture sets plus one union result, so the suite runs single-threaded: eight concurrent
+ * {@code eclipse_or} results at that size would need another 8 GB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class IntSetBackendTest {
+
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
+    private static final int LOOKUP_SIZE = 1000;
+    private static final int BITS_PER_ELEMENT = Integer.SIZE;
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(IntSetBackendTest.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(1)
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"1000", "100000", "10000000", "50000000"})
+        int size;
+        @Param({"UNIFORM", "DENSE", "CLUSTERED", "RUNS", "COMPACT"})
+        Distribution distribution;
+
+        RoaringBitmap roaringBitmap;
+        RoaringBitmap otherRoaringBitmap;
+        IntHashSet intHashSet;
+        IntHashSet otherIntHashSet;
+        int[] sortedArray;
+        int[] otherSortedArray;
+        int[] probes;
+
+        @Setup
+        public void setup() {
+            roaringBitmap = Datasets.bitmap(distribution, size, 0);
+            otherRoaringBitmap = Datasets.bitmap(distribution, size, 1);
+            sortedArray = roaringBitmap.toArray();
+            otherSortedArray = otherRoaringBitmap.toArray();
+            intHashSet = IntHashSet.newSetWith(sortedArray);
+            otherIntHashSet = IntHashSet.newSetWith(otherSortedArray);
+            probes = Probes.mixed(roaringBitmap, LOOKUP_SIZE, Datasets.random());
+            Footprint.report("RoaringBitmap", roaringBitmap, size);
+            Footprint.report("IntHashSet", intHashSet, size);
+            Footprint.report("int[]", sortedArray, size);
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Bits {
+
+        BitSet bitSet;
+        BitSet otherBitSet;
+
+        @Setup
+        public void setup(Provider provider) {
+            long span = Math.max(last(provider.sortedArray), last(provider.otherSortedArray)) + 1L;
+            if (span > (long) BITS_PER_ELEMENT * provider.size) {
+                throw new IllegalStateException(provider.distribution + " ids span " + span + " bits for "
+                        + provider.size + " elements, more than " + BITS_PER_ELEMENT + " per element; BitSet skipped");
+            }
+            bitSet = toBitSet(provider.sortedArray);
+            otherBitSet = toBitSet(provider.otherSortedArray);
+            Footprint.report("BitSet", bitSet, provider.size);
+        }
+
+        private static int last(int[] ids) {
+            return ids[ids.length - 1];
+        }
+
+        private static BitSet toBitSet(int[] ids) {
+            BitSet bitSet = new BitSet(last(ids) + 1);
+            for (int id : ids) {
+                bitSet.set(id);
+            }
+            return bitSet;
+        }
+
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void roaring_contains(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (provider.roaringBitmap.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void eclipse_contains(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (provider.intHashSet.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void bitSet_contains(Provider provider, Bits bits, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (bits.bitSet.get(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void sortedArray_contains(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (Arrays.binarySearch(provider.sortedArray, probe) >= 0) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    public void roaring_or(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.or(provider.roaringBitmap, provider.otherRoaringBitmap));
+    }
+
+    @Benchmark
+    public void eclipse_or(Provider provider, Blackhole blackhole) {
+        IntHashSet or = new IntHashSet(provider.intHashSet.size() + provider.otherIntHashSet.size());
+        or.addAll(provider.intHashSet);
+        or.addAll(provider.otherIntHashSet);
+        blackhole.consume(or);
+    }
+
+    @Benchmark
+    public void bitSet_or(Bits bits, Blackhole blackhole) {
+        BitSet or = (BitSet) bits.bitSet.clone();
+        or.or(bits.otherBitSet);
+        blackhole.consume(or);
+    }
+
+    @Benchmark
+    public void sortedArray_or(Provider provider, Blackhole blackhole) {
+        int[] a = provider.sortedArray;
+        int[] b = provider.otherSortedArray;
+        int[] or = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) or[k++] = a[i++];
+            else if (a[i] > b[j]) or[k++] = b[j++];
+            else {
+                or[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) or[k++] = a[i++];
+        while (j < b.length) or[k++] = b[j++];
+        blackhole.consume(Arrays.copyOf(or, k));
+    }
+
+    @Benchmark
+    public void roaring_and(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.and(provider.roaringBitmap, provider.otherRoaringBitmap));
+    }
+
+    @Benchmark
+    public void eclipse_and(Provider provider, Blackhole blackhole) {
+        IntHashSet other = provider.otherIntHashSet;
+        blackhole.consume(provider.intHashSet.select(other::contains));
+    }
+
+    @Benchmark
+    public void bitSet_and(Bits bits, Blackhole blackhole) {
+        BitSet and = (BitSet) bits.bitSet.clone();
+        and.and(bits.otherBitSet);
+        blackhole.consume(and);
+    }
+
+    @Benchmark
+    public void sortedArray_and(Provider provider, Blackhole blackhole) {
+        int[] a = provider.sortedArray;
+        int[] b = provider.otherSortedArray;
+        int[] and = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                and[k++] = a[i++];
+                j++;
+            }
+        }
+        blackhole.consume(Arrays.copyOf(and, k));
+    }
+
+    @Benchmark
+    public void roaring_andNot(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.andNot(provider.roaringBitmap, provider.otherRoaringBitmap));
+    }
+
+    @Benchmark
+    public void eclipse_andNot(Provider provider, Blackhole blackhole) {
+        IntHashSet other = provider.otherIntHashSet;
+        blackhole.consume(provider.intHashSet.reject(other::contains));
+    }
+
+    @Benchmark
+    public void bitSet_andNot(Bits bits, Blackhole blackhole) {
+        BitSet andNot = (BitSet) bits.bitSet.clone();
+        andNot.andNot(bits.otherBitSet);
+        blackhole.consume(andNot);
+    }
+
+    @Benchmark
+    public void sortedArray_andNot(Provider provider, Blackhole blackhole) {
+        int[] a = provider.sortedArray;
+        int[] b = provider.otherSortedArray;
+        int[] andNot = new int[a.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length) {
+            while (j < b.length && b[j] < a[i]) j++;
+            if (j == b.length || b[j] != a[i]) andNot[k++] = a[i];
+            i++;
+        }
+        blackhole.consume(Arrays.copyOf(andNot, k));
+    }
+
+    @Benchmark
+    public void roaring_iterate(Provider provider, Blackhole blackhole) {
+        long sum = 0;
+        PeekableIntIterator iterator = provider.roaringBitmap.getIntIterator();
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+        }
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    public void eclipse_iterate(Provider provider, Blackhole blackhole) {
+        long sum = 0;
+        IntIterator iterator = provider.intHashSet.intIterator();
+        while (iterator.hasNext()) {
+            sum += iterator.next();
+        }
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    public void bitSet_iterate(Bits bits, Blackhole blackhole) {
+        long sum = 0;
+        BitSet bitSet = bits.bitSet;
+        for (int i = bitSet.nextSetBit(0); i >= 0; i = bitSet.nextSetBit(i + 1)) {
+            sum += i;
+        }
+        blackhole.consume(sum);
+    }
+
+    @Benchmark
+    public void sortedArray_iterate(Provider provider, Blackhole blackhole) {
+        long sum = 0;
+        for (int id : provider.sortedArray) {
+            sum += id;
+        }
+        blackhole.consume(sum);
+    }
+
+}
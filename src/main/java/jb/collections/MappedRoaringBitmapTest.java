@@ -0,0 +1,191 @@
+package jb.collections;
+
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bitmaps served straight from a memory-mapped file as {@link ImmutableRoaringBitmap} against the same bitmaps
+ * deserialized onto the heap. Open benchmarks are single shot; "cold" there means a fresh mapping of a file that
+ * is already in the page cache, which is how a restarted service sees it. Probes come from {@link Probes#mixed}, so
+ * no 1e8-element id array is materialized, and forks get a 4 GB heap for the heap-resident copies at that size.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class MappedRoaringBitmapTest {
+
+    private static final int LOOKUP_SIZE = 1000;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MappedRoaringBitmapTest.class.getSimpleName())
+                .forks(1)
+                .threads(8)
+                .warmupIterations(1)
+                .measurementIterations(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"1000000", "10000000", "100000000"})
+        int size;
+        @Param({"UNIFORM", "DENSE", "CLUSTERED", "RUNS"})
+        Distribution distribution;
+
+        Path file;
+        Path otherFile;
+        RoaringBitmap roaringBitmap;
+        RoaringBitmap otherRoaringBitmap;
+        ImmutableRoaringBitmap immutableRoaringBitmap;
+        ImmutableRoaringBitmap otherImmutableRoaringBitmap;
+        int[] probes;
+        int probe;
+
+        @Setup
+        public void setup() throws IOException {
+            RoaringBitmap bitmap = Datasets.bitmap(distribution, size, 0);
+            RoaringBitmap otherBitmap = Datasets.bitmap(distribution, size, 1);
+            bitmap.runOptimize();
+            otherBitmap.runOptimize();
+            file = write(bitmap);
+            otherFile = write(otherBitmap);
+            roaringBitmap = deserialize(file);
+            otherRoaringBitmap = deserialize(otherFile);
+            immutableRoaringBitmap = map(file);
+            otherImmutableRoaringBitmap = map(otherFile);
+            probes = Probes.mixed(bitmap, LOOKUP_SIZE, Datasets.random());
+            probe = probes[0];
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(otherFile);
+        }
+
+        private Path write(RoaringBitmap bitmap) throws IOException {
+            Path path = Files.createTempFile("roaring", ".bin");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+                bitmap.serialize(out);
+            }
+            return path;
+        }
+
+    }
+
+    static ImmutableRoaringBitmap map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ImmutableRoaringBitmap(buffer);
+        }
+    }
+
+    static RoaringBitmap deserialize(Path path) throws IOException {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        bitmap.deserialize(ByteBuffer.wrap(Files.readAllBytes(path)));
+        return bitmap;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void mapped_open(Provider provider, Blackhole blackhole) throws IOException {
+        blackhole.consume(map(provider.file));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void heap_deserialize(Provider provider, Blackhole blackhole) throws IOException {
+        blackhole.consume(deserialize(provider.file));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void mapped_open_firstQuery(Provider provider, Blackhole blackhole) throws IOException {
+        blackhole.consume(map(provider.file).contains(provider.probe));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public void heap_deserialize_firstQuery(Provider provider, Blackhole blackhole) throws IOException {
+        blackhole.consume(deserialize(provider.file).contains(provider.probe));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void mapped_contains(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (provider.immutableRoaringBitmap.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void heap_contains(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (provider.roaringBitmap.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void mapped_and(Provider provider, Blackhole blackhole) {
+        blackhole.consume(
+                ImmutableRoaringBitmap.and(provider.immutableRoaringBitmap, provider.otherImmutableRoaringBitmap));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void heap_and(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.and(provider.roaringBitmap, provider.otherRoaringBitmap));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void mapped_or(Provider provider, Blackhole blackhole) {
+        blackhole.consume(
+                ImmutableRoaringBitmap.or(provider.immutableRoaringBitmap, provider.otherImmutableRoaringBitmap));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void heap_or(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.or(provider.roaringBitmap, provider.otherRoaringBitmap));
+    }
+
+}
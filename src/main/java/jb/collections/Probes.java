@@ -0,0 +1,56 @@
+package jb.collections;
+
+import org.roaringbitmap.ImmutableBitmapDataProvider;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Lookup probes drawn from a bitmap fixture, shared by the set benchmarks so hits and misses cost the same everywhere.
+ */
+public final class Probes {
+
+    private static final int MISS_ATTEMPTS = 100;
+
+    private Probes() {
+    }
+
+    /**
+     * Absent ids that share their high 16 bits with a present one, so every miss reaches a container instead of
+     * failing on the key lookup. Ids are drawn inside the containers of random members; fully populated
+     * containers, as in a large {@link jb.dataset.Distribution#DENSE} range, are topped up with the gaps next to the
+     * populated range.
+     */
+    public static Set<Integer> misses(ImmutableBitmapDataProvider bitmap, int count, Random random) {
+        int size = bitmap.getCardinality();
+        Set<Integer> misses = new HashSet<>(2 * count);
+        for (int attempt = 0; attempt < MISS_ATTEMPTS * count && misses.size() < count; attempt++) {
+            int member = bitmap.select(random.nextInt(size));
+            int candidate = (member & 0xFFFF0000) | random.nextInt(1 << 16);
+            if (!bitmap.contains(candidate)) {
+                misses.add(candidate);
+            }
+        }
+        for (long id = bitmap.first() & 0xFFFF0000L; misses.size() < count; id++) {
+            if (!bitmap.contains((int) id)) {
+                misses.add((int) id);
+            }
+        }
+        return misses;
+    }
+
+    /**
+     * {@code count} probes, half distinct members picked with {@code select} and half {@link #misses}, interleaved.
+     */
+    public static int[] mixed(ImmutableBitmapDataProvider bitmap, int count, Random random) {
+        int[] hits = random.ints(0, bitmap.getCardinality()).distinct().limit(count / 2).map(bitmap::select).toArray();
+        int[] misses = misses(bitmap, count - hits.length, random).stream().mapToInt(Integer::intValue).toArray();
+        int[] probes = new int[count];
+        for (int i = 0; i < count; i++) {
+            probes[i] = i % 2 == 0 ? hits[i / 2] : misses[i / 2];
+        }
+        return probes;
+    }
+
+}
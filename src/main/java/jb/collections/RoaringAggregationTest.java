@@ -0,0 +1,204 @@
+package jb.collections;
+
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.ParallelAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Union and intersection of N posting lists drawn from one shared universe. Every list holds a common core of
+ * {@value #CORE_SHARE} of the universe plus a random half of the rest, so they overlap the way posting lists of one
+ * index do and the intersection stays non-empty however many lists are combined. The parallel variants take a
+ * {@code parallelism} sweep so their scaling with core count can be read straight off the results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoaringAggregationTest {
+
+    private static final int LEAF_SIZE = 16;
+    private static final double CORE_SHARE = 0.1;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RoaringAggregationTest.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(1)
+                .measurementIterations(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"2", "10", "100", "1000"})
+        int count;
+        @Param({"10000", "100000"})
+        int size;
+        @Param({"UNIFORM", "CLUSTERED", "RUNS"})
+        Distribution distribution;
+
+        RoaringBitmap[] bitmaps;
+
+        @Setup
+        public void setup() {
+            Random random = Datasets.random();
+            int[] universe = Datasets.bitmap(distribution, 2 * size, 0).toArray();
+            boolean[] core = new boolean[universe.length];
+            for (int i = 0; i < core.length; i++) {
+                core[i] = random.nextDouble() < CORE_SHARE;
+            }
+            bitmaps = new RoaringBitmap[count];
+            for (int i = 0; i < count; i++) {
+                RoaringBitmap bitmap = new RoaringBitmap();
+                for (int j = 0; j < universe.length; j++) {
+                    if (core[j] || random.nextBoolean()) bitmap.add(universe[j]);
+                }
+                bitmap.runOptimize();
+                bitmaps[i] = bitmap;
+            }
+            if (FastAggregation.and(iterator()).isEmpty()) {
+                throw new IllegalStateException("Intersection of " + count + " " + distribution + " lists is empty");
+            }
+        }
+
+        Iterator<RoaringBitmap> iterator() {
+            return Arrays.asList(bitmaps).iterator();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8", "16"})
+        int parallelism;
+
+        ForkJoinPool forkJoinPool;
+
+        @Setup
+        public void setup() {
+            forkJoinPool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown
+        public void tearDown() {
+            forkJoinPool.shutdown();
+        }
+
+    }
+
+    /**
+     * Only ever forked within one pool, never serialized, although {@link RecursiveTask} is {@code Serializable}.
+     */
+    @SuppressWarnings("serial")
+    static final class Reduction extends RecursiveTask<RoaringBitmap> {
+
+        private final RoaringBitmap[] bitmaps;
+        private final int from;
+        private final int to;
+        private final Function<Iterator<RoaringBitmap>, RoaringBitmap> leaf;
+        private final BinaryOperator<RoaringBitmap> merge;
+
+        Reduction(RoaringBitmap[] bitmaps, int from, int to,
+                  Function<Iterator<RoaringBitmap>, RoaringBitmap> leaf, BinaryOperator<RoaringBitmap> merge) {
+            this.bitmaps = bitmaps;
+            this.from = from;
+            this.to = to;
+            this.leaf = leaf;
+            this.merge = merge;
+        }
+
+        @Override
+        protected RoaringBitmap compute() {
+            if (to - from <= LEAF_SIZE) {
+                return leaf.apply(Arrays.asList(bitmaps).subList(from, to).iterator());
+            }
+            int middle = (from + to) >>> 1;
+            Reduction left = new Reduction(bitmaps, from, middle, leaf, merge);
+            left.fork();
+            RoaringBitmap right = new Reduction(bitmaps, middle, to, leaf, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+
+    }
+
+    @Benchmark
+    public void sequential_or(Provider provider, Blackhole blackhole) {
+        RoaringBitmap or = new RoaringBitmap();
+        for (RoaringBitmap bitmap : provider.bitmaps) {
+            or.or(bitmap);
+        }
+        blackhole.consume(or);
+    }
+
+    @Benchmark
+    public void sequential_and(Provider provider, Blackhole blackhole) {
+        RoaringBitmap and = provider.bitmaps[0].clone();
+        for (int i = 1; i < provider.bitmaps.length; i++) {
+            and.and(provider.bitmaps[i]);
+        }
+        blackhole.consume(and);
+    }
+
+    @Benchmark
+    public void fastAggregation_or(Provider provider, Blackhole blackhole) {
+        blackhole.consume(FastAggregation.or(provider.iterator()));
+    }
+
+    @Benchmark
+    public void fastAggregation_priorityQueueOr(Provider provider, Blackhole blackhole) {
+        blackhole.consume(FastAggregation.priorityqueue_or(provider.iterator()));
+    }
+
+    @Benchmark
+    public void fastAggregation_and(Provider provider, Blackhole blackhole) {
+        blackhole.consume(FastAggregation.and(provider.iterator()));
+    }
+
+    @Benchmark
+    public void parallelAggregation_or(Provider provider, Pool pool, Blackhole blackhole) {
+        blackhole.consume(pool.forkJoinPool.submit(() -> ParallelAggregation.or(provider.bitmaps)).join());
+    }
+
+    @Benchmark
+    public void forkJoin_or(Provider provider, Pool pool, Blackhole blackhole) {
+        RoaringBitmap[] bitmaps = provider.bitmaps;
+        Reduction reduction = new Reduction(bitmaps, 0, bitmaps.length,
+                FastAggregation::or, (left, right) -> RoaringBitmap.or(left, right));
+        blackhole.consume(pool.forkJoinPool.invoke(reduction));
+    }
+
+    @Benchmark
+    public void forkJoin_and(Provider provider, Pool pool, Blackhole blackhole) {
+        RoaringBitmap[] bitmaps = provider.bitmaps;
+        Reduction reduction = new Reduction(bitmaps, 0, bitmaps.length,
+                FastAggregation::and, (left, right) -> RoaringBitmap.and(left, right));
+        blackhole.consume(pool.forkJoinPool.invoke(reduction));
+    }
+
+}
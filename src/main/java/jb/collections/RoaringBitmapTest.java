@@ -1,124 +1,203 @@
 package jb.collections;
 
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.PeekableIntIterator;
 import org.roaringbitmap.RoaringBitmap;
-import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+/**
+ * Roaring against boxed {@link HashSet} over a size, distribution and runOptimize sweep. The roaring fixtures of the
+ * largest size need a 4 GB heap, which every fork gets. Boxed sets above {@link Footprint#MAX_BOXED_ELEMENTS} would
+ * need several times that, so the {@code native_*} benchmarks fail fast in setup at those sizes instead of running out
+ * of memory.
+ */
+@Fork(jvmArgsAppend = "-Xmx4g")
 public class RoaringBitmapTest {
 
-    private static final int SMALL_SET_SIZE = 1000;
-    private static final int LARGE_SET_SIZE = 1000000;
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
     private static final int LOOKUP_SIZE = 1000;
 
     public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
                 .include(RoaringBitmapTest.class.getSimpleName())
                 .forks(1)
                 .threads(8)
                 .warmupIterations(1)
-                .measurementIterations(1)
-                .build();
-        new Runner(options).run();
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
     }
 
     @State(Scope.Benchmark)
     public static class Provider {
 
-        Set<Integer> smallSet = new HashSet<>(SMALL_SET_SIZE);
-        Set<Integer> largeSet = new HashSet<>(LARGE_SET_SIZE);
-        RoaringBitmap smallRoaringBitmap = new RoaringBitmap();
-        RoaringBitmap largeRoaringBitmap = new RoaringBitmap();
-        Set<Integer> lookupSmallNeg;
-        Set<Integer> lookupLargeNeg;
-        ImmutableRoaringBitmap immutableRoaringBitmap;
+        @Param({"1000", "100000", "1000000", "10000000", "100000000"})
+        int size;
+        @Param({"UNIFORM", "DENSE", "CLUSTERED", "RUNS"})
+        Distribution distribution;
+        @Param({"false", "true"})
+        boolean runOptimize;
+
+        RoaringBitmap roaringBitmap;
+        RoaringBitmap otherRoaringBitmap;
+        Set<Integer> lookupNeg;
+        int[] probes;
+        Integer[] boxedProbes;
+        RoaringBitmap probeBitmap;
 
         @Setup
         public void setup() {
-            fillCollections(smallSet, smallRoaringBitmap, SMALL_SET_SIZE);
-            fillCollections(largeSet, largeRoaringBitmap, LARGE_SET_SIZE);
-            lookupSmallNeg = IntStream.range(0, 2 * SMALL_SET_SIZE)
-                            .boxed()
-                            .filter(i -> !smallSet.contains(i))
-                            .limit(LOOKUP_SIZE)
-                            .collect(Collectors.toSet());
-            lookupLargeNeg = IntStream.range(0, 2 * LARGE_SET_SIZE)
-                            .boxed()
-                            .filter(i -> !largeSet.contains(i))
-                            .limit(LOOKUP_SIZE)
-                            .collect(Collectors.toSet());
+            Random random = Datasets.random();
+            roaringBitmap = Datasets.bitmap(distribution, size, 0);
+            otherRoaringBitmap = Datasets.bitmap(distribution, size, 1);
+            if (runOptimize) {
+                roaringBitmap.runOptimize();
+                otherRoaringBitmap.runOptimize();
+            }
+            lookupNeg = Probes.misses(roaringBitmap, LOOKUP_SIZE, random);
+            probes = IntStream.concat(
+                    random.ints(0, size).distinct().limit(LOOKUP_SIZE / 2).map(roaringBitmap::select),
+                    lookupNeg.stream().limit(LOOKUP_SIZE / 2).mapToInt(Integer::intValue))
+                    .sorted()
+                    .toArray();
+            if (probes.length != LOOKUP_SIZE) {
+                throw new IllegalStateException("Expected " + LOOKUP_SIZE + " distinct probes, got " + probes.length);
+            }
+            boxedProbes = IntStream.of(probes).boxed().toArray(Integer[]::new);
+            probeBitmap = RoaringBitmap.bitmapOf(probes);
+            Footprint.report("RoaringBitmap", roaringBitmap, size);
         }
 
-        private void fillCollections(Set<Integer> set, RoaringBitmap roaringBitmap, int count) {
-            Random random = new Random();
-            for (int i = 0; i < count; i++) {
-                int next = random.nextInt(Integer.MAX_VALUE);
-                set.add(next);
-                roaringBitmap.add(next);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Boxed {
+
+        Set<Integer> set;
+        Set<Integer> otherSet;
+
+        @Setup
+        public void setup(Provider provider) {
+            if (provider.size > Footprint.MAX_BOXED_ELEMENTS) {
+                throw new IllegalStateException("Boxed sets are capped at " + Footprint.MAX_BOXED_ELEMENTS
+                        + " elements, skipping size " + provider.size);
             }
+            set = toSet(provider.roaringBitmap, provider.size);
+            otherSet = toSet(provider.otherRoaringBitmap, provider.size);
+            Footprint.reportBoxed("HashSet<Integer>", set, provider.size);
+        }
+
+        private static Set<Integer> toSet(RoaringBitmap roaringBitmap, int size) {
+            Set<Integer> set = new HashSet<>(size);
+            roaringBitmap.forEach((int i) -> set.add(i));
+            return set;
         }
 
     }
 
     @Benchmark
-    public void native_or(Provider provider, Blackhole blackhole) {
-        Set<Integer> or = new HashSet<>(provider.largeSet.size() + provider.smallSet.size());
-        or.addAll(provider.smallSet);
-        or.addAll(provider.largeSet);
+    public void native_or(Boxed boxed, Blackhole blackhole) {
+        Set<Integer> or = new HashSet<>(boxed.set.size() + boxed.otherSet.size());
+        or.addAll(boxed.otherSet);
+        or.addAll(boxed.set);
         blackhole.consume(or);
     }
 
     @Benchmark
     public void roaring_or(Provider provider, Blackhole blackhole) {
         RoaringBitmap or = new RoaringBitmap();
-        or.or(provider.smallRoaringBitmap);
-        or.or(provider.largeRoaringBitmap);
+        or.or(provider.otherRoaringBitmap);
+        or.or(provider.roaringBitmap);
         blackhole.consume(or);
     }
 
     @Benchmark
-    public void small_set_lookup_roaring(Provider provider, Blackhole blackhole) {
-        long cnt = provider.lookupSmallNeg.stream()
-                .map(i -> provider.smallRoaringBitmap.contains(i))
+    public void set_lookup_roaring(Provider provider, Blackhole blackhole) {
+        long cnt = provider.lookupNeg.stream()
+                .map(i -> provider.roaringBitmap.contains(i))
                 .count();
         blackhole.consume(cnt);
     }
 
     @Benchmark
-    public void large_set_lookup_roaring(Provider provider, Blackhole blackhole) {
-        long cnt = provider.lookupLargeNeg.stream()
-                .map(i -> provider.largeRoaringBitmap.contains(i))
+    public void set_lookup_native(Provider provider, Boxed boxed, Blackhole blackhole) {
+        long cnt = provider.lookupNeg.stream()
+                .map(i -> boxed.set.contains(i))
                 .count();
         blackhole.consume(cnt);
     }
 
     @Benchmark
-    public void small_set_lookup_native(Provider provider, Blackhole blackhole) {
-        long cnt = provider.lookupSmallNeg.stream()
-                .map(i -> provider.smallSet.contains(i))
-                .count();
-        blackhole.consume(cnt);
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void probe_loop_roaring(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        for (int probe : provider.probes) {
+            if (provider.roaringBitmap.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
     }
 
     @Benchmark
-    public void large_set_lookup_native(Provider provider, Blackhole blackhole) {
-        long cnt = provider.lookupLargeNeg.stream()
-                .map(i -> provider.largeSet.contains(i))
-                .count();
-        blackhole.consume(cnt);
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void probe_loop_native(Provider provider, Boxed boxed, Blackhole blackhole) {
+        int hits = 0;
+        for (Integer probe : provider.boxedProbes) {
+            if (boxed.set.contains(probe)) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void probe_iterator_roaring(Provider provider, Blackhole blackhole) {
+        int hits = 0;
+        PeekableIntIterator iterator = provider.roaringBitmap.getIntIterator();
+        for (int probe : provider.probes) {
+            iterator.advanceIfNeeded(probe);
+            if (iterator.hasNext() && iterator.peekNext() == probe) hits++;
+        }
+        blackhole.consume(hits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void probe_and_roaring(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.and(provider.roaringBitmap, provider.probeBitmap));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(LOOKUP_SIZE)
+    public void probe_andCardinality_roaring(Provider provider, Blackhole blackhole) {
+        blackhole.consume(RoaringBitmap.andCardinality(provider.roaringBitmap, provider.probeBitmap));
     }
 
 }
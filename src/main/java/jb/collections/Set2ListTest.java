@@ -1,139 +1,331 @@
 package jb.collections;
 
-import org.apache.commons.collections4.CollectionUtils;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import jb.dataset.Datasets;
+import jb.dataset.Distribution;
+import org.eclipse.collections.api.iterator.IntIterator;
 import org.eclipse.collections.impl.list.mutable.FastList;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.set.mutable.UnifiedSet;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.roaringbitmap.RoaringBitmap;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
+/**
+ * Set to list conversion over a matrix of source set, size and target. Every target is allocated at exactly the
+ * source's size, so no variant pays for growth the others skip. Each invocation converts {@value #ELEMENTS} elements
+ * in total, split into sets of {@code size}, so ops/s reads as elements/s and {@code gc.alloc.rate.norm} as bytes
+ * allocated per element - for the boxed and the primitive track alike.
+ */
 public class Set2ListTest {
 
-    private static final int SMALL_SET_SIZE = 10;
-    private static final int LARGE_SET_SIZE = 1000;
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
+    private static final int ELEMENTS = 1_000_000;
 
     public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
                 .include(Set2ListTest.class.getSimpleName())
                 .forks(1)
                 .threads(8)
                 .warmupIterations(1)
-                .measurementIterations(1)
-                .build();
-        new Runner(options).run();
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
     }
 
-    @State(Scope.Benchmark)
-    public static class Provider {
-
-        Set<Set<Integer>> smallSet = new HashSet<>(SMALL_SET_SIZE);
-        Set<Set<Integer>> largeSet = new HashSet<>(LARGE_SET_SIZE);
+    public enum Source {
+        HASH_SET {
+            @Override
+            Set<Integer> create(List<Integer> values) {
+                return new HashSet<>(values);
+            }
+        },
+        TREE_SET {
+            @Override
+            Set<Integer> create(List<Integer> values) {
+                return new TreeSet<>(values);
+            }
+        },
+        LINKED_HASH_SET {
+            @Override
+            Set<Integer> create(List<Integer> values) {
+                return new LinkedHashSet<>(values);
+            }
+        },
+        UNIFIED_SET {
+            @Override
+            Set<Integer> create(List<Integer> values) {
+                return UnifiedSet.newSet(values);
+            }
+        },
+        IMMUTABLE_SET {
+            @Override
+            Set<Integer> create(List<Integer> values) {
+                return ImmutableSet.copyOf(values);
+            }
+        };
 
-        @Setup
-        public void setup() {
-            fillSet(smallSet, SMALL_SET_SIZE);
-            fillSet(largeSet, LARGE_SET_SIZE);
-        }
+        abstract Set<Integer> create(List<Integer> values);
+    }
 
-        private void fillSet(Set<Set<Integer>> set, int count) {
-            Random random = new Random();
-            for (int i = 0; i < count; i++) {
-                Set<Integer> innerSet = new TreeSet<>();
-                for (int j = 0; j < count; j++) {
-                    innerSet.add(random.nextInt(Integer.MAX_VALUE));
+    public enum Target {
+        ARRAY_LIST {
+            @Override
+            Object convert(Collection<Integer> set) {
+                return new ArrayList<>(set);
+            }
+        },
+        FAST_LIST {
+            @Override
+            Object convert(Collection<Integer> set) {
+                return FastList.newList(set);
+            }
+        },
+        IMMUTABLE_LIST {
+            @Override
+            Object convert(Collection<Integer> set) {
+                return ImmutableList.copyOf(set);
+            }
+        },
+        TO_ARRAY {
+            @Override
+            Object convert(Collection<Integer> set) {
+                return set.toArray(new Integer[set.size()]);
+            }
+        },
+        INT_ARRAY_LIST {
+            @Override
+            Object convert(Collection<Integer> set) {
+                IntArrayList list = new IntArrayList(set.size());
+                for (Integer i : set) {
+                    list.add(i);
                 }
-                set.add(innerSet);
+                return list;
             }
-        }
+        };
 
+        abstract Object convert(Collection<Integer> set);
     }
 
-    @Benchmark
-    public void small_plainJava(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(SMALL_SET_SIZE);
-        for (Set<Integer> set : provider.smallSet) {
-            list.add(new ArrayList<>(set));
-        }
-        blackhole.consume(list);
+    public enum PrimitiveSource {
+        INT_HASH_SET {
+            @Override
+            PrimitiveSet create(int[] values) {
+                IntHashSet set = IntHashSet.newSetWith(values);
+                return new PrimitiveSet() {
+                    @Override
+                    public int size() {
+                        return set.size();
+                    }
+
+                    @Override
+                    public void addTo(IntArrayList list) {
+                        IntIterator iterator = set.intIterator();
+                        while (iterator.hasNext()) {
+                            list.add(iterator.next());
+                        }
+                    }
+
+                    @Override
+                    public void putInto(IntBuffer buffer) {
+                        IntIterator iterator = set.intIterator();
+                        while (iterator.hasNext()) {
+                            buffer.put(iterator.next());
+                        }
+                    }
+
+                    @Override
+                    public int[] toArray() {
+                        return set.toArray();
+                    }
+                };
+            }
+        },
+        ROARING_BITMAP {
+            @Override
+            PrimitiveSet create(int[] values) {
+                RoaringBitmap set = RoaringBitmap.bitmapOfUnordered(values);
+                return new PrimitiveSet() {
+                    @Override
+                    public int size() {
+                        return set.getCardinality();
+                    }
+
+                    @Override
+                    public void addTo(IntArrayList list) {
+                        set.forEach((org.roaringbitmap.IntConsumer) list::add);
+                    }
+
+                    @Override
+                    public void putInto(IntBuffer buffer) {
+                        set.forEach((org.roaringbitmap.IntConsumer) buffer::put);
+                    }
+
+                    @Override
+                    public int[] toArray() {
+                        return set.toArray();
+                    }
+                };
+            }
+        };
+
+        abstract PrimitiveSet create(int[] values);
     }
 
-    @Benchmark
-    public void large_plainJava(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(LARGE_SET_SIZE);
-        for (Set<Integer> set : provider.largeSet) {
-            list.add(new ArrayList<>(set));
-        }
-        blackhole.consume(list);
+    public enum PrimitiveTarget {
+        INT_ARRAY_LIST {
+            @Override
+            Object convert(PrimitiveSet set) {
+                IntArrayList list = new IntArrayList(set.size());
+                set.addTo(list);
+                return list;
+            }
+        },
+        INT_ARRAY {
+            @Override
+            Object convert(PrimitiveSet set) {
+                return set.toArray();
+            }
+        },
+        INT_BUFFER {
+            @Override
+            Object convert(PrimitiveSet set) {
+                IntBuffer buffer = IntBuffer.allocate(set.size());
+                set.putInto(buffer);
+                buffer.flip();
+                return buffer;
+            }
+        };
+
+        abstract Object convert(PrimitiveSet set);
     }
 
-    @Benchmark
-    public void small_guava(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(SMALL_SET_SIZE);
-        for (Set<Integer> set : provider.smallSet) {
-            list.add(com.google.common.collect.Lists.newArrayList(set));
-        }
-        blackhole.consume(list);
+    /**
+     * Common view of the unboxed sources. Eclipse Collections has no sorted primitive set, so {@link RoaringBitmap}
+     * stands in for the sorted one. Copies take each library's cheapest unboxed path: the {@link IntHashSet}'s own
+     * int iterator, and {@link RoaringBitmap#forEach} with a consumer bound straight to the target, since Roaring's
+     * int iterator allocates per container. Either way one small object per set is all that is allocated besides the
+     * target.
+     */
+    interface PrimitiveSet {
+
+        int size();
+
+        void addTo(IntArrayList list);
+
+        void putInto(IntBuffer buffer);
+
+        int[] toArray();
+
     }
 
-    @Benchmark
-    public void large_guava(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(LARGE_SET_SIZE);
-        for (Set<Integer> set : provider.largeSet) {
-            list.add(com.google.common.collect.Lists.newArrayList(set));
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"HASH_SET", "TREE_SET", "LINKED_HASH_SET", "UNIFIED_SET", "IMMUTABLE_SET"})
+        Source source;
+        @Param({"1", "10", "1000", "100000", "1000000"})
+        int size;
+        @Param({"ARRAY_LIST", "FAST_LIST", "IMMUTABLE_LIST", "TO_ARRAY", "INT_ARRAY_LIST"})
+        Target target;
+
+        List<Set<Integer>> sets;
+
+        @Setup
+        public void setup() {
+            int[] values = values();
+            sets = new ArrayList<>(ELEMENTS / size);
+            for (int i = 0; i < ELEMENTS / size; i++) {
+                List<Integer> slice = Arrays.stream(values, i * size, (i + 1) * size)
+                        .boxed()
+                        .collect(Collectors.toList());
+                sets.add(source.create(slice));
+            }
         }
-        blackhole.consume(list);
+
     }
 
-    @Benchmark
-    public void small_commons(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(SMALL_SET_SIZE);
-        for (Set<Integer> set : provider.smallSet) {
-            List<Integer> innerList = new ArrayList<>(SMALL_SET_SIZE);
-            CollectionUtils.addAll(innerList, set);
-            list.add(innerList);
+    @State(Scope.Benchmark)
+    public static class PrimitiveProvider {
+
+        @Param({"INT_HASH_SET", "ROARING_BITMAP"})
+        PrimitiveSource primitiveSource;
+        @Param({"1", "10", "1000", "100000", "1000000"})
+        int size;
+        @Param({"INT_ARRAY_LIST", "INT_ARRAY", "INT_BUFFER"})
+        PrimitiveTarget primitiveTarget;
+
+        List<PrimitiveSet> sets;
+
+        @Setup
+        public void setup() {
+            int[] values = values();
+            sets = new ArrayList<>(ELEMENTS / size);
+            for (int i = 0; i < ELEMENTS / size; i++) {
+                sets.add(primitiveSource.create(Arrays.copyOfRange(values, i * size, (i + 1) * size)));
+            }
         }
-        blackhole.consume(list);
+
     }
 
-    @Benchmark
-    public void large_commons(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = new ArrayList<>(LARGE_SET_SIZE);
-        for (Set<Integer> set : provider.largeSet) {
-            List<Integer> innerList = new ArrayList<>(LARGE_SET_SIZE);
-            CollectionUtils.addAll(innerList, set);
-            list.add(innerList);
+    /**
+     * The {@value #ELEMENTS} distinct {@link Distribution#UNIFORM} ids, shuffled so that every slice of them is a set
+     * of ids spread over the whole int range rather than a narrow sorted run.
+     */
+    private static int[] values() {
+        int[] values = new int[ELEMENTS];
+        Datasets.ids(Distribution.UNIFORM, ELEMENTS, 0).get(values);
+        Random random = Datasets.random();
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
         }
-        blackhole.consume(list);
+        return values;
     }
 
     @Benchmark
-    public void small_eclipse(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = FastList.newList();
-        for (Set<Integer> set : provider.smallSet) {
-            list.add(FastList.newList(set));
+    @OperationsPerInvocation(ELEMENTS)
+    public void convert(Provider provider, Blackhole blackhole) {
+        for (Set<Integer> set : provider.sets) {
+            blackhole.consume(provider.target.convert(set));
         }
-        blackhole.consume(list);
     }
 
     @Benchmark
-    public void large_eclipse(Provider provider, Blackhole blackhole) {
-        List<List<Integer>> list = FastList.newList();
-        for (Set<Integer> set : provider.largeSet) {
-            list.add(FastList.newList(set));
+    @OperationsPerInvocation(ELEMENTS)
+    public void convertPrimitive(PrimitiveProvider provider, Blackhole blackhole) {
+        for (PrimitiveSet set : provider.sets) {
+            blackhole.consume(provider.primitiveTarget.convert(set));
         }
-        blackhole.consume(list);
     }
 
 }
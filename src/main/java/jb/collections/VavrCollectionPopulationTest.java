@@ -1,6 +1,22 @@
 package jb.collections;
 
+import io.vavr.collection.Array;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Queue;
+import io.vavr.collection.Vector;
+import jb.dataset.Datasets;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.mutable.FastList;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -8,21 +24,163 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Growth of persistent collections. The fixed 10,000-element benchmarks build a collection from empty; the
+ * per-type benchmarks time a single prepend, append, update or concat on a collection that already holds
+ * {@code size} elements, which is what appending to a long-lived log costs. Eclipse and Guava immutable lists have
+ * no structural sharing and copy on every change - they are the baseline. The build-from-empty benchmarks keep
+ * reporting throughput; the per-type ones report average time in microseconds.
+ * <p>
+ * The {@code *_snapshots} benchmarks keep {@value #SNAPSHOTS} versions alive per invocation. For the copying lists
+ * that is 100 full copies, about 400 MB at a million elements, so forks get a 4 GB heap and the suite runs
+ * single-threaded.
+ * <p>
+ * Run with {@code footprint [sizes] [versions]} (comma separated) to skip the benchmarks and print the retained heap
+ * of K versions of an N-element collection instead.
+ */
+@Fork(jvmArgsAppend = "-Xmx4g")
 public class VavrCollectionPopulationTest {
 
+    private static final int SNAPSHOTS = 100;
+
     public static void main(String[] args) throws RunnerException {
+        if (args.length > 0 && "footprint".equals(args[0])) {
+            footprint(args.length > 1 ? parseInts(args[1]) : new int[]{1_000, 10_000, 100_000},
+                    args.length > 2 ? parseInts(args[2]) : new int[]{10, 100});
+            return;
+        }
         Options options = new OptionsBuilder()
                 .include(VavrCollectionPopulationTest.class.getSimpleName())
                 .forks(1)
-                .threads(8)
                 .warmupIterations(1)
                 .measurementIterations(1)
                 .build();
         new Runner(options).run();
     }
 
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Ways of keeping every version of a list alive while each version overwrites one random element of the
+     * previous one.
+     */
+    public enum Versioning {
+        VAVR_LIST {
+            @Override
+            Object[] versions(int size, int count, Random random) {
+                Object[] versions = new Object[count];
+                io.vavr.collection.List<Integer> list = io.vavr.collection.List.range(0, size);
+                for (int i = 0; i < count; i++) {
+                    versions[i] = list;
+                    list = list.update(random.nextInt(size), -i);
+                }
+                return versions;
+            }
+        },
+        VAVR_VECTOR {
+            @Override
+            Object[] versions(int size, int count, Random random) {
+                Object[] versions = new Object[count];
+                Vector<Integer> vector = Vector.range(0, size);
+                for (int i = 0; i < count; i++) {
+                    versions[i] = vector;
+                    vector = vector.update(random.nextInt(size), -i);
+                }
+                return versions;
+            }
+        },
+        COPY_ON_WRITE_ARRAYLIST {
+            @Override
+            Object[] versions(int size, int count, Random random) {
+                Object[] versions = new Object[count];
+                ArrayList<Integer> list = new ArrayList<>(io.vavr.collection.List.range(0, size).asJava());
+                for (int i = 0; i < count; i++) {
+                    versions[i] = list;
+                    list = new ArrayList<>(list);
+                    list.set(random.nextInt(size), -i);
+                }
+                return versions;
+            }
+        },
+        COPY_ON_WRITE_LINKEDLIST {
+            @Override
+            Object[] versions(int size, int count, Random random) {
+                Object[] versions = new Object[count];
+                LinkedList<Integer> list = new LinkedList<>(io.vavr.collection.List.range(0, size).asJava());
+                for (int i = 0; i < count; i++) {
+                    versions[i] = list;
+                    list = new LinkedList<>(list);
+                    list.set(random.nextInt(size), -i);
+                }
+                return versions;
+            }
+        };
+
+        abstract Object[] versions(int size, int count, Random random);
+    }
+
+    static void footprint(int[] sizes, int[] counts) {
+        Random random = Datasets.random();
+        System.out.printf("%-26s %10s %9s %14s %14s %16s %18s%n",
+                "versioning", "size", "versions", "total bytes", "bytes/version", "bytes/element",
+                "bytes/extra version");
+        for (Versioning versioning : Versioning.values()) {
+            for (int size : sizes) {
+                for (int count : counts) {
+                    Object[] versions = versioning.versions(size, count, random);
+                    long total = Footprint.of(versions);
+                    long first = Footprint.of(versions[0]);
+                    System.out.printf("%-26s %10d %9d %14d %14.1f %16.2f %18.1f%n",
+                            versioning, size, count, total,
+                            (double) total / count,
+                            (double) total / ((long) size * count),
+                            count > 1 ? (double) (total - first) / (count - 1) : 0.0);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"1000", "10000", "100000", "1000000"})
+        int size;
+
+        io.vavr.collection.List<Integer> vavrList;
+        Vector<Integer> vavrVector;
+        Array<Integer> vavrArray;
+        Queue<Integer> vavrQueue;
+        HashSet<Integer> vavrHashSet;
+        HashSet<Integer> otherVavrHashSet;
+        org.eclipse.collections.api.list.ImmutableList<Integer> eclipseList;
+        com.google.common.collect.ImmutableList<Integer> guavaList;
+
+        @Setup
+        public void setup() {
+            vavrList = io.vavr.collection.List.range(0, size);
+            vavrVector = Vector.range(0, size);
+            vavrArray = Array.range(0, size);
+            vavrQueue = Queue.ofAll(vavrList);
+            vavrHashSet = HashSet.range(0, size);
+            otherVavrHashSet = HashSet.range(size, 2 * size);
+            eclipseList = Lists.immutable.withAll(vavrList);
+            guavaList = com.google.common.collect.ImmutableList.copyOf(vavrList);
+        }
+
+        int index() {
+            return ThreadLocalRandom.current().nextInt(size);
+        }
+
+    }
+
     @Benchmark
     public void vavr_prepend(Blackhole blackhole) {
         io.vavr.collection.List list = io.vavr.collection.List.empty();
@@ -68,4 +226,287 @@ public class VavrCollectionPopulationTest {
         blackhole.consume(list);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrList_prepend(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrList.prepend(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrVector_prepend(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrVector.prepend(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrArray_prepend(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrArray.prepend(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrQueue_prepend(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrQueue.prepend(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrList_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrList.append(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrVector_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrVector.append(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrArray_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrArray.append(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrQueue_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrQueue.append(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrHashSet_add(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrHashSet.add(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void eclipse_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseList.newWith(-1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void guava_append(Provider provider, Blackhole blackhole) {
+        blackhole.consume(com.google.common.collect.ImmutableList.<Integer>builderWithExpectedSize(provider.size + 1)
+                .addAll(provider.guavaList)
+                .add(-1)
+                .build());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrList_update(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrList.update(provider.index(), -1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrVector_update(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrVector.update(provider.index(), -1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrArray_update(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrArray.update(provider.index(), -1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrQueue_update(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrQueue.update(provider.index(), -1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void eclipse_update(Provider provider, Blackhole blackhole) {
+        FastList<Integer> list = FastList.newList(provider.eclipseList.castToList());
+        list.set(provider.index(), -1);
+        blackhole.consume(list.toImmutable());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void guava_update(Provider provider, Blackhole blackhole) {
+        int index = provider.index();
+        blackhole.consume(com.google.common.collect.ImmutableList.<Integer>builderWithExpectedSize(provider.size)
+                .addAll(provider.guavaList.subList(0, index))
+                .add(-1)
+                .addAll(provider.guavaList.subList(index + 1, provider.size))
+                .build());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrList_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrList.appendAll(provider.vavrList));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrVector_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrVector.appendAll(provider.vavrVector));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrArray_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrArray.appendAll(provider.vavrArray));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrQueue_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrQueue.appendAll(provider.vavrQueue));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void vavrHashSet_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.vavrHashSet.addAll(provider.otherVavrHashSet));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void eclipse_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseList.newWithAll(provider.eclipseList));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void guava_concat(Provider provider, Blackhole blackhole) {
+        blackhole.consume(com.google.common.collect.ImmutableList.<Integer>builderWithExpectedSize(2 * provider.size)
+                .addAll(provider.guavaList)
+                .addAll(provider.guavaList)
+                .build());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void vavrList_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        io.vavr.collection.List<Integer> list = provider.vavrList;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            // a List log is kept newest-first; appending would copy the whole list per version
+            list = list.prepend(i);
+            versions[i] = list;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void vavrVector_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        Vector<Integer> vector = provider.vavrVector;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            vector = vector.append(i);
+            versions[i] = vector;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void vavrArray_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        Array<Integer> array = provider.vavrArray;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            array = array.append(i);
+            versions[i] = array;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void vavrQueue_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        Queue<Integer> queue = provider.vavrQueue;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            queue = queue.append(i);
+            versions[i] = queue;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void vavrHashSet_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        HashSet<Integer> set = provider.vavrHashSet;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            set = set.add(-i - 1);
+            versions[i] = set;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void eclipse_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        org.eclipse.collections.api.list.ImmutableList<Integer> list = provider.eclipseList;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            list = list.newWith(i);
+            versions[i] = list;
+        }
+        blackhole.consume(versions);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(SNAPSHOTS)
+    public void guava_snapshots(Provider provider, Blackhole blackhole) {
+        Object[] versions = new Object[SNAPSHOTS];
+        com.google.common.collect.ImmutableList<Integer> list = provider.guavaList;
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            list = com.google.common.collect.ImmutableList.<Integer>builderWithExpectedSize(list.size() + 1)
+                    .addAll(list)
+                    .add(i)
+                    .build();
+            versions[i] = list;
+        }
+        blackhole.consume(versions);
+    }
+
 }
@@ -0,0 +1,75 @@
+package jb.dataset;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Shapes of int value sequences with repeats, such as the keys of a grouping workload. Every variant writes exactly
+ * {@code size} values in {@code [0, bound)}.
+ */
+public enum Dataset {
+
+    /**
+     * Every value equally likely.
+     */
+    UNIFORM {
+        @Override
+        void generate(IntBuffer out, int size, int bound, Random random) {
+            for (int i = 0; i < size; i++) {
+                out.put(random.nextInt(bound));
+            }
+        }
+    },
+
+    /**
+     * Value {@code k} drawn with probability proportional to {@code 1 / (k + 1)}, so a few values dominate.
+     */
+    ZIPFIAN {
+        @Override
+        void generate(IntBuffer out, int size, int bound, Random random) {
+            double[] cumulative = new double[bound];
+            double sum = 0;
+            for (int k = 0; k < bound; k++) {
+                sum += 1.0 / (k + 1);
+                cumulative[k] = sum;
+            }
+            for (int i = 0; i < size; i++) {
+                int k = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                out.put(Math.min(k < 0 ? -k - 1 : k, bound - 1));
+            }
+        }
+    },
+
+    /**
+     * Values within {@value #CLUSTER_WIDTH} of one of {@value #CLUSTERS} random centres.
+     */
+    CLUSTERED {
+        @Override
+        void generate(IntBuffer out, int size, int bound, Random random) {
+            int[] centres = random.ints(CLUSTERS, 0, bound).toArray();
+            for (int i = 0; i < size; i++) {
+                int value = centres[random.nextInt(CLUSTERS)] + random.nextInt(2 * CLUSTER_WIDTH + 1) - CLUSTER_WIDTH;
+                out.put(Math.floorMod(value, bound));
+            }
+        }
+    },
+
+    /**
+     * {@link #UNIFORM} values in ascending order.
+     */
+    SORTED {
+        @Override
+        void generate(IntBuffer out, int size, int bound, Random random) {
+            int[] values = random.ints(size, 0, bound).toArray();
+            Arrays.sort(values);
+            out.put(values);
+        }
+    };
+
+    private static final int CLUSTERS = 16;
+    private static final int CLUSTER_WIDTH = 64;
+
+    abstract void generate(IntBuffer out, int size, int bound, Random random);
+
+}
@@ -0,0 +1,141 @@
+package jb.dataset;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Seeded benchmark data shared across forks and runs. Every dataset is generated once from {@link #SEED} and kept as
+ * a raw native-order int file under {@code target/datasets}; later setups map that file read-only instead of
+ * regenerating it, so all forks see identical data and large sweeps skip the expensive generation. File names carry
+ * a {@link #fingerprint(Enum) fingerprint} of the generating code, so editing a distribution or its parameters never
+ * reuses stale files. The seed and the directory can be changed with {@code -Djb.dataset.seed} and
+ * {@code -Djb.dataset.dir}.
+ */
+public final class Datasets {
+
+    public static final long SEED = Long.getLong("jb.dataset.seed", 42L);
+
+    private static final File DIRECTORY = new File(System.getProperty("jb.dataset.dir", "target/datasets"));
+    private static final int FORMAT_VERSION = 1;
+    private static final int CHUNK = 1 << 16;
+
+    private Datasets() {
+    }
+
+    /**
+     * Random source for whatever a setup still draws itself, such as probes; same sequence in every fork.
+     */
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+    /**
+     * {@code size} distinct ids in ascending order. Different {@code variant}s are independent draws from the same
+     * distribution, e.g. the two sides of a union.
+     */
+    public static IntBuffer ids(Distribution distribution, int size, int variant) {
+        return cached("ids-" + distribution + "-" + fingerprint(distribution) + "-" + size + "-" + variant, size,
+                out -> out.put(distribution.ids(size, random(variant))));
+    }
+
+    public static RoaringBitmap bitmap(Distribution distribution, int size, int variant) {
+        IntBuffer ids = ids(distribution, size, variant);
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int[] chunk = new int[CHUNK];
+        while (ids.hasRemaining()) {
+            int n = Math.min(CHUNK, ids.remaining());
+            ids.get(chunk, 0, n);
+            bitmap.addN(chunk, 0, n);
+        }
+        return bitmap;
+    }
+
+    /**
+     * {@code size} values in {@code [0, bound)}, repeats allowed.
+     */
+    public static IntBuffer values(Dataset dataset, int size, int bound, int variant) {
+        return cached("values-" + dataset + "-" + fingerprint(dataset) + "-" + size + "-" + bound + "-" + variant, size,
+                out -> dataset.generate(out, size, bound, random(variant)));
+    }
+
+    /**
+     * CRC32 of the bytecode of {@code generator}'s enum and constant body. Compile-time constants such as
+     * {@code CLUSTER_SPAN} are inlined into that bytecode, so any change to a generator's code or parameters changes
+     * the fingerprint; so do unrelated edits that move line numbers, which only costs a regeneration.
+     */
+    static String fingerprint(Enum<?> generator) {
+        CRC32 crc = new CRC32();
+        update(crc, generator.getDeclaringClass());
+        if (generator.getClass() != generator.getDeclaringClass()) {
+            update(crc, generator.getClass());
+        }
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static void update(CRC32 crc, Class<?> type) {
+        String resource = type.getName().substring(type.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream in = type.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Cannot read the bytecode of " + type.getName());
+            }
+            crc.update(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the bytecode of " + type.getName(), e);
+        }
+    }
+
+    private static Random random(int variant) {
+        return new Random(SEED * 31 + variant);
+    }
+
+    /**
+     * Maps {@code <name>.bin} read-only, generating it through a temporary file first if it does not exist yet.
+     */
+    static synchronized IntBuffer cached(String name, int size, Consumer<IntBuffer> generator) {
+        Path file = new File(DIRECTORY, name + "-" + SEED + "-v" + FORMAT_VERSION + ".bin").toPath();
+        long bytes = (long) size * Integer.BYTES;
+        try {
+            if (!Files.exists(file)) {
+                Files.createDirectories(DIRECTORY.toPath());
+                Path temp = Files.createTempFile(DIRECTORY.toPath(), name, ".tmp");
+                try {
+                    try (FileChannel channel =
+                                 FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+                        generator.accept(buffer.order(ByteOrder.nativeOrder()).asIntBuffer());
+                        buffer.force();
+                    }
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() != bytes) {
+                    throw new IllegalStateException(file + " holds " + channel.size() + " bytes, expected " + bytes);
+                }
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes)
+                        .order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot cache dataset " + file, e);
+        }
+    }
+
+}
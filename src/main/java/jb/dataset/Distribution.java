@@ -0,0 +1,106 @@
+package jb.dataset;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Random;
+
+/**
+ * Shapes of int id sets used by the bitmap benchmarks. Every variant yields exactly {@code size} distinct,
+ * non-negative ids.
+ */
+public enum Distribution {
+
+    /**
+     * Ids spread over the whole positive int range - worst case for Roaring containers.
+     */
+    UNIFORM {
+        @Override
+        void fill(RoaringBitmap bitmap, int size, Random random) {
+            int count = 0;
+            while (count < size) {
+                if (bitmap.checkedAdd(random.nextInt(Integer.MAX_VALUE))) {
+                    count++;
+                }
+            }
+        }
+    },
+
+    /**
+     * One contiguous range starting at a random offset.
+     */
+    DENSE {
+        @Override
+        void fill(RoaringBitmap bitmap, int size, Random random) {
+            long start = random.nextInt(Integer.MAX_VALUE - size);
+            bitmap.add(start, start + size);
+        }
+    },
+
+    /**
+     * Half of the ids in {@code [0, 2 * size)}, so the whole set spans a bounded range.
+     */
+    COMPACT {
+        @Override
+        void fill(RoaringBitmap bitmap, int size, Random random) {
+            int count = 0;
+            while (count < size) {
+                if (bitmap.checkedAdd(random.nextInt(2 * size))) {
+                    count++;
+                }
+            }
+        }
+    },
+
+    /**
+     * Half-populated clusters of {@value #CLUSTER_SPAN} ids scattered over the int range.
+     */
+    CLUSTERED {
+        @Override
+        void fill(RoaringBitmap bitmap, int size, Random random) {
+            int count = 0;
+            while (count < size) {
+                int base = random.nextInt(Integer.MAX_VALUE - CLUSTER_SPAN);
+                for (int i = 0; i < CLUSTER_SPAN && count < size; i++) {
+                    if (random.nextBoolean() && bitmap.checkedAdd(base + i)) {
+                        count++;
+                    }
+                }
+            }
+        }
+    },
+
+    /**
+     * Runs of up to {@value #MAX_RUN_LENGTH} consecutive ids scattered over the int range.
+     */
+    RUNS {
+        @Override
+        void fill(RoaringBitmap bitmap, int size, Random random) {
+            int count = 0;
+            while (count < size) {
+                int start = random.nextInt(Integer.MAX_VALUE - MAX_RUN_LENGTH);
+                int length = 1 + random.nextInt(MAX_RUN_LENGTH);
+                for (int i = 0; i < length && count < size; i++) {
+                    if (bitmap.checkedAdd(start + i)) {
+                        count++;
+                    }
+                }
+            }
+        }
+    };
+
+    private static final int CLUSTER_SPAN = 4096;
+    private static final int MAX_RUN_LENGTH = 256;
+
+    abstract void fill(RoaringBitmap bitmap, int size, Random random);
+
+    public RoaringBitmap bitmap(int size, Random random) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        fill(bitmap, size, random);
+        return bitmap;
+    }
+
+    public int[] ids(int size, Random random) {
+        return bitmap(size, random).toArray();
+    }
+
+}
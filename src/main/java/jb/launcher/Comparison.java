@@ -0,0 +1,136 @@
+package jb.launcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compares stored results of a candidate against a baseline. A change counts only when the two 99.9% confidence
+ * intervals JMH reported do not overlap and the scores differ by at least the threshold; results without an interval
+ * (single-iteration runs), and those whose baseline score is zero or not a number, are listed but never flagged.
+ * Exits with status 1 if any regression was found, and with 2 on a malformed command line. Usage:
+ * <pre>
+ * Comparison -baseline commit[@jdk] [-candidate commit[@jdk]] [-threshold percent] [-store dir]
+ * </pre>
+ * The candidate defaults to the checked-out commit and the threshold to {@value #DEFAULT_THRESHOLD}%.
+ */
+public class Comparison {
+
+    static final double DEFAULT_THRESHOLD = 5;
+
+    static final String USAGE =
+            "Usage: Comparison -baseline commit[@jdk] [-candidate commit[@jdk]] [-threshold percent] [-store dir]";
+
+    public static void main(String[] args) throws IOException {
+        String store = ResultStore.DEFAULT_STORE;
+        String baseline = null;
+        String candidate = null;
+        double threshold = DEFAULT_THRESHOLD;
+        try {
+            Iterator<String> it = Arrays.asList(args).iterator();
+            while (it.hasNext()) {
+                String arg = it.next();
+                switch (arg) {
+                    case "-baseline":
+                        baseline = Launcher.value(arg, it);
+                        break;
+                    case "-candidate":
+                        candidate = Launcher.value(arg, it);
+                        break;
+                    case "-threshold":
+                        String percent = Launcher.value(arg, it);
+                        try {
+                            threshold = Double.parseDouble(percent);
+                        } catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("Expected a number for -threshold but got " + percent);
+                        }
+                        break;
+                    case "-store":
+                        store = Launcher.value(arg, it);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            }
+            if (baseline == null) {
+                throw new IllegalArgumentException("Missing -baseline");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        ResultStore results = new ResultStore(new File(store));
+        Map<String, StoredResult> candidateResults =
+                results.load(candidate != null ? candidate : ResultStore.currentCommit());
+        int regressions = compare(results.load(baseline), candidateResults, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, NO_CONFIDENCE, NO_BASELINE, MISSING
+    }
+
+    static Verdict verdict(StoredResult baseline, StoredResult candidate, double threshold) {
+        if (baseline == null || candidate == null) {
+            return Verdict.MISSING;
+        }
+        if (!baseline.hasConfidence() || !candidate.hasConfidence()) {
+            return Verdict.NO_CONFIDENCE;
+        }
+        double change = change(baseline, candidate);
+        if (Double.isNaN(change)) {
+            return Verdict.NO_BASELINE;
+        }
+        boolean overlap = candidate.low <= baseline.high && baseline.low <= candidate.high;
+        if (overlap || Math.abs(change) < threshold) {
+            return Verdict.UNCHANGED;
+        }
+        return change < 0 ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+    }
+
+    /**
+     * Relative change in percent, signed so that positive is always better; {@code NaN} when either score is not
+     * finite or the baseline is zero, as there is nothing to relate the change to.
+     */
+    static double change(StoredResult baseline, StoredResult candidate) {
+        if (baseline.score == 0 || !Double.isFinite(baseline.score) || !Double.isFinite(candidate.score)) {
+            return Double.NaN;
+        }
+        double change = (candidate.score - baseline.score) / baseline.score * 100;
+        return baseline.higherIsBetter() ? change : -change;
+    }
+
+    static int compare(Map<String, StoredResult> baseline, Map<String, StoredResult> candidate, double threshold) {
+        int regressions = 0;
+        int improvements = 0;
+        for (String key : union(baseline, candidate)) {
+            StoredResult before = baseline.get(key);
+            StoredResult after = candidate.get(key);
+            Verdict verdict = verdict(before, after, threshold);
+            if (verdict == Verdict.REGRESSION) regressions++;
+            if (verdict == Verdict.IMPROVEMENT) improvements++;
+            if (verdict == Verdict.MISSING) {
+                System.out.printf("%-13s %s (only in %s)%n", verdict, key, before == null ? "candidate" : "baseline");
+            } else {
+                double change = change(before, after);
+                System.out.printf("%-13s %s: %.3f +- %.3f -> %.3f +- %.3f %s (%s)%n", verdict, key,
+                        before.score, before.error, after.score, after.error, after.unit,
+                        Double.isNaN(change) ? "n/a" : String.format("%+.1f%%", change));
+            }
+        }
+        System.out.printf("%d regressions, %d improvements beyond %.1f%%%n", regressions, improvements, threshold);
+        return regressions;
+    }
+
+    private static Iterable<String> union(Map<String, StoredResult> baseline, Map<String, StoredResult> candidate) {
+        Set<String> keys = new TreeSet<>(baseline.keySet());
+        keys.addAll(candidate.keySet());
+        return keys;
+    }
+
+}
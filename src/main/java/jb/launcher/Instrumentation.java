@@ -0,0 +1,182 @@
+package jb.launcher;
+
+import jb.profile.JfrProfiler;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.StackProfiler;
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the selected suites once per garbage collector with the GC profiler attached, optionally adding the stack
+ * profiler and a per-benchmark Flight Recorder file, and writes one combined {@code report.csv} of score, allocation
+ * rate, bytes/op, GC count and GC time. Usage:
+ * <pre>
+ * Instrumentation [-gc G1,PARALLEL,ZGC,EPSILON] [-stack] [-jfr] [Launcher options...]
+ * </pre>
+ * Everything else is passed to {@link Launcher}, so profiles, filters and {@code @Param} overrides work as there.
+ * Without {@code -gc} the G1, Parallel and ZGC collectors run. Epsilon never collects, so an allocation-heavy suite
+ * exhausts any heap under it; it only runs when named with {@code -gc}, for allocation-only runs with a short profile
+ * and an explicit {@code -jvmArgs -Xmx...} large enough for them.
+ * Output goes to {@code <-o dir>/instrumentation-<timestamp>/}, with JFR files under {@code jfr/<gc>/} and stack
+ * profiles in {@code stack-<gc>.txt}.
+ */
+public class Instrumentation {
+
+    public enum Collector {
+        G1("-XX:+UseG1GC"),
+        PARALLEL("-XX:+UseParallelGC"),
+        ZGC("-XX:+UseZGC"),
+        EPSILON("-XX:+UnlockExperimentalVMOptions", "-XX:+UseEpsilonGC");
+
+        final String[] jvmArgs;
+
+        Collector(String... jvmArgs) {
+            this.jvmArgs = jvmArgs;
+        }
+    }
+
+    static final String USAGE =
+            "Usage: Instrumentation [-gc G1,PARALLEL,ZGC,EPSILON] [-stack] [-jfr] [Launcher options...]";
+
+    private static final List<Collector> DEFAULT_COLLECTORS =
+            Arrays.asList(Collector.G1, Collector.PARALLEL, Collector.ZGC);
+    private static final String[] COLUMNS = {"gc.alloc.rate", "gc.alloc.rate.norm", "gc.count", "gc.time"};
+
+    public static void main(String[] args) throws RunnerException, FileNotFoundException {
+        List<Collector> collectors = new ArrayList<>(DEFAULT_COLLECTORS);
+        boolean stack = false;
+        boolean jfr = false;
+        List<String> launcherArgs = new ArrayList<>();
+        Iterator<String> it = Arrays.asList(args).iterator();
+        while (it.hasNext()) {
+            String arg = it.next();
+            if ("-gc".equals(arg)) {
+                collectors = collectors(arg, it);
+            } else if ("-stack".equals(arg)) {
+                stack = true;
+            } else if ("-jfr".equals(arg)) {
+                jfr = true;
+            } else {
+                launcherArgs.add(arg);
+            }
+        }
+        Launcher launcher = Launcher.parse(launcherArgs);
+        launcher.requiredProfilers.add(GCProfiler.class);
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File directory = new File(launcher.output, "instrumentation-" + timestamp);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + directory);
+        }
+        try (PrintWriter report = new PrintWriter(new File(directory, "report.csv"))) {
+            report.println("\"GC\",\"Benchmark\",\"Mode\",\"Params\",\"Score\",\"Score Error (99.9%)\",\"Unit\","
+                    + "\"gc.alloc.rate (MB/sec)\",\"gc.alloc.rate.norm (B/op)\",\"gc.count\",\"gc.time (ms)\"");
+            for (Collector collector : collectors) {
+                ChainedOptionsBuilder options = launcher.options(collector.jvmArgs);
+                if (stack) {
+                    options.addProfiler(StackProfiler.class);
+                }
+                if (jfr) {
+                    File recordings = new File(directory, "jfr/" + collector.name().toLowerCase(Locale.ROOT));
+                    options.addProfiler(JfrProfiler.class, recordings.getPath());
+                }
+                Collection<RunResult> results = new Runner(options.build()).run();
+                for (RunResult result : results) {
+                    report.println(row(collector, result));
+                }
+                report.flush();
+                if (stack) {
+                    String name = "stack-" + collector.name().toLowerCase(Locale.ROOT) + ".txt";
+                    writeStacks(new File(directory, name), results);
+                }
+            }
+        }
+        System.out.println("Instrumentation report written to " + new File(directory, "report.csv"));
+    }
+
+    /**
+     * Collectors named by {@code -gc}, printing the usage and exiting on a missing value or an unknown name.
+     */
+    private static List<Collector> collectors(String flag, Iterator<String> it) {
+        List<Collector> collectors = new ArrayList<>();
+        try {
+            for (String name : Launcher.value(flag, it).split(",")) {
+                collectors.add(Collector.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        return collectors;
+    }
+
+    static String row(Collector collector, RunResult result) {
+        BenchmarkResult aggregate = result.getAggregatedResult();
+        Result<?> primary = aggregate.getPrimaryResult();
+        Map<String, String> params = new TreeMap<>();
+        for (String key : result.getParams().getParamsKeys()) {
+            params.put(key, result.getParams().getParam(key));
+        }
+        StringBuilder row = new StringBuilder()
+                .append('"').append(collector).append("\",\"")
+                .append(result.getParams().getBenchmark()).append("\",\"")
+                .append(result.getParams().getMode().shortLabel()).append("\",\"")
+                .append(params.isEmpty() ? "" : params.toString()).append("\",")
+                .append(primary.getScore()).append(',')
+                .append(primary.getScoreError()).append(",\"")
+                .append(primary.getScoreUnit()).append('"');
+        for (String column : COLUMNS) {
+            row.append(',').append(secondary(aggregate, column));
+        }
+        return row.toString();
+    }
+
+    /**
+     * Looks a secondary result up by name, ignoring the prefix JMH puts in front of profiler metrics.
+     */
+    private static String secondary(BenchmarkResult aggregate, String name) {
+        for (Map.Entry<String, ?> entry : aggregate.getSecondaryResults().entrySet()) {
+            String label = entry.getKey();
+            if (label.equals(name) || label.endsWith("·" + name)) {
+                return String.valueOf(((Result<?>) entry.getValue()).getScore());
+            }
+        }
+        return "";
+    }
+
+    private static void writeStacks(File file, Collection<RunResult> results) throws FileNotFoundException {
+        try (PrintWriter out = new PrintWriter(file)) {
+            for (RunResult result : results) {
+                for (Map.Entry<String, ?> entry : result.getAggregatedResult().getSecondaryResults().entrySet()) {
+                    if (entry.getKey().endsWith("stack")) {
+                        String params = result.getParams().getParamsKeys().stream()
+                                .map(key -> key + "=" + result.getParams().getParam(key))
+                                .collect(Collectors.joining(", "));
+                        out.println("== " + result.getParams().getBenchmark() + " " + params);
+                        out.println(((Result<?>) entry.getValue()).extendedInfo());
+                    }
+                }
+            }
+        }
+    }
+
+}
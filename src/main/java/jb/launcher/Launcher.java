@@ -0,0 +1,248 @@
+package jb.launcher;
+
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.profile.ProfilerFactory;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.BenchmarkList;
+import org.openjdk.jmh.runner.BenchmarkListEntry;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.format.OutputFormat;
+import org.openjdk.jmh.runner.format.OutputFormatFactory;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Single entry point for all suites. Usage:
+ * <pre>
+ * Launcher [smoke|standard|rigorous] [-i regexp]... [-e regexp]... [-p name=v1,v2]... [-t threads]
+ *          [-prof profiler]... [-jvmArgs "args"] [-o dir] [-store dir]
+ * </pre>
+ * {@code -i} and {@code -e} take JMH regexps over the fully qualified benchmark name, so {@code -i jb.collections}
+ * selects a package and {@code -e Vavr} drops everything with Vavr in its name. {@code -p} overrides a {@code @Param}
+ * everywhere it is declared. Every run writes {@code <profile>-<timestamp>.json} and {@code .csv} into the output
+ * directory ({@code target/results} by default), both with the 99.9% error bound of each score. With {@code -store},
+ * the JSON is also filed in that {@link ResultStore} under the checked-out commit, ready for {@link Comparison}.
+ * <p>
+ * Each selected suite gets the profilers its own {@code main} attaches, declared once in the suite's public static
+ * {@value #SUITE_PROFILERS} list, and heap requirements live in the suites' {@code @Fork(jvmArgsAppend = ...)}.
+ * {@code -jvmArgs} replaces those, so give the heap again when overriding.
+ * {@link jb.collections.ConcurrentRoaringBitmapTest}'s reader/writer sweep is driven by its own {@code main}; here it
+ * runs its default {@code @GroupThreads} split only.
+ */
+public class Launcher {
+
+    static final String DEFAULT_OUTPUT = "target/results";
+    static final String USAGE =
+            "Usage: Launcher [smoke|standard|rigorous] [-i regexp]... [-e regexp]... [-p name=v1,v2]... [-t threads]\n"
+            + "                [-prof profiler]... [-jvmArgs \"args\"] [-o dir] [-store dir]";
+
+    /**
+     * Field holding the profilers a suite's own {@code main} attaches, so their metrics are reported however the
+     * suite is launched.
+     */
+    static final String SUITE_PROFILERS = "PROFILERS";
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        parse(Arrays.asList(args)).run();
+    }
+
+    /**
+     * Parses a command line, printing the usage and exiting on anything it does not understand.
+     */
+    static Launcher parse(List<String> args) {
+        try {
+            return new Launcher(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return null;
+        }
+    }
+
+    RunProfile profile = RunProfile.STANDARD;
+    final List<String> includes = new ArrayList<>();
+    final List<String> excludes = new ArrayList<>();
+    final Map<String, String[]> params = new LinkedHashMap<>();
+    final List<String> profilers = new ArrayList<>();
+    /**
+     * Attached on top of the suite profilers by the modes built on this launcher.
+     */
+    final Set<Class<? extends Profiler>> requiredProfilers = new LinkedHashSet<>();
+    final List<String> jvmArgs = new ArrayList<>();
+    int threads = 1;
+    String output = DEFAULT_OUTPUT;
+    String store;
+
+    Launcher(List<String> args) {
+        Iterator<String> it = args.iterator();
+        while (it.hasNext()) {
+            String arg = it.next();
+            switch (arg) {
+                case "-i":
+                    includes.add(value(arg, it));
+                    break;
+                case "-e":
+                    excludes.add(value(arg, it));
+                    break;
+                case "-p":
+                    String param = value(arg, it);
+                    int eq = param.indexOf('=');
+                    if (eq <= 0) {
+                        throw new IllegalArgumentException("Expected -p name=v1,v2 but got " + param);
+                    }
+                    params.put(param.substring(0, eq), param.substring(eq + 1).split(","));
+                    break;
+                case "-t":
+                    threads = Integer.parseInt(value(arg, it));
+                    break;
+                case "-prof":
+                    profilers.add(value(arg, it));
+                    break;
+                case "-jvmArgs":
+                    jvmArgs.addAll(Arrays.asList(value(arg, it).trim().split("\\s+")));
+                    break;
+                case "-o":
+                    output = value(arg, it);
+                    break;
+                case "-store":
+                    store = value(arg, it);
+                    break;
+                default:
+                    profile = profile(arg);
+            }
+        }
+        if (includes.isEmpty()) {
+            includes.add("jb\\.");
+        }
+    }
+
+    private static RunProfile profile(String name) {
+        for (RunProfile profile : RunProfile.values()) {
+            if (profile.name().equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown argument " + name);
+    }
+
+    static String value(String flag, Iterator<String> it) {
+        if (!it.hasNext()) {
+            throw new IllegalArgumentException("Missing value for " + flag);
+        }
+        return it.next();
+    }
+
+    /**
+     * Options for this command line. {@code extraJvmArgs} are prepended, so they keep the suites' {@code @Fork} heap
+     * settings; {@code -jvmArgs} are appended and replace them.
+     */
+    ChainedOptionsBuilder options(String... extraJvmArgs) {
+        ChainedOptionsBuilder builder = profile.apply(new OptionsBuilder()).threads(threads);
+        includes.forEach(builder::include);
+        excludes.forEach(builder::exclude);
+        params.forEach(builder::param);
+        profilers.forEach(builder::addProfiler);
+        Set<Class<? extends Profiler>> attached = new LinkedHashSet<>(requiredProfilers);
+        attached.addAll(suiteProfilers());
+        attached.removeAll(requestedProfilers());
+        attached.forEach(builder::addProfiler);
+        if (extraJvmArgs.length > 0) {
+            builder.jvmArgsPrepend(extraJvmArgs);
+        }
+        if (!jvmArgs.isEmpty()) {
+            builder.jvmArgsAppend(jvmArgs.toArray(new String[0]));
+        }
+        return builder;
+    }
+
+    /**
+     * Profilers of every suite with at least one benchmark selected by {@code -i} and {@code -e}.
+     */
+    Set<Class<? extends Profiler>> suiteProfilers() {
+        Set<Class<? extends Profiler>> suiteProfilers = new LinkedHashSet<>();
+        OutputFormat silent = OutputFormatFactory.createFormatInstance(System.out, VerboseMode.SILENT);
+        Set<String> suites = new LinkedHashSet<>();
+        for (BenchmarkListEntry entry : BenchmarkList.defaultList().find(silent, includes, excludes)) {
+            suites.add(entry.getUserClassQName());
+        }
+        for (String suite : suites) {
+            suiteProfilers.addAll(suiteProfilers(suite));
+        }
+        return suiteProfilers;
+    }
+
+    static List<Class<? extends Profiler>> suiteProfilers(String suite) {
+        List<Class<? extends Profiler>> profilers = new ArrayList<>();
+        try {
+            Field field = Class.forName(suite).getField(SUITE_PROFILERS);
+            for (Object profiler : (List<?>) field.get(null)) {
+                profilers.add(((Class<?>) profiler).asSubclass(Profiler.class));
+            }
+        } catch (NoSuchFieldException e) {
+            // The suite attaches no profilers of its own.
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read the profilers of " + suite, e);
+        }
+        return profilers;
+    }
+
+    /**
+     * Classes of the profilers given with {@code -prof}, which JMH refuses to attach twice.
+     */
+    private Set<Class<?>> requestedProfilers() {
+        Set<Class<?>> requested = new HashSet<>();
+        for (String name : profilers) {
+            try {
+                requested.add(ProfilerFactory.getProfilerOrException(new ProfilerConfig(name)).getClass());
+            } catch (ProfilerException e) {
+                // Unknown here means unknown to JMH too, which reports it when the run starts.
+            }
+        }
+        return requested;
+    }
+
+    Collection<RunResult> run() throws RunnerException, IOException {
+        File directory = new File(output);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + directory);
+        }
+        String stem = new File(directory, profile.name().toLowerCase(Locale.ROOT) + "-"
+                + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date())).getPath();
+        Collection<RunResult> results = new Runner(options()
+                .resultFormat(ResultFormatType.JSON)
+                .result(stem + ".json")
+                .build()).run();
+        ResultFormatFactory.getInstance(ResultFormatType.CSV, stem + ".csv").writeOut(results);
+        System.out.println("Results written to " + stem + ".json and " + stem + ".csv");
+        if (store != null) {
+            File stored = new ResultStore(new File(store)).add(new File(stem + ".json"), ResultStore.currentCommit());
+            System.out.println("Stored " + stored);
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,213 @@
+package jb.launcher;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local store of JMH JSON results, laid out as {@code <store>/<commit>/<jdk>/<file>.json}. Loading a commit (and
+ * optionally a JDK) yields one {@link StoredResult} per benchmark, mode and params; when a key was run more than once,
+ * the file that sorts last - the latest run for {@link Launcher} output - wins. A commit run on several JDKs must be
+ * loaded as {@code commit@jdk}, so results of different JDKs never replace each other. Usage:
+ * <pre>
+ * ResultStore [-store dir] add [-commit id] result.json...
+ * ResultStore [-store dir] list
+ * </pre>
+ */
+public class ResultStore {
+
+    static final String DEFAULT_STORE = "perf-results";
+
+    public static void main(String[] args) throws IOException {
+        Iterator<String> it = Arrays.asList(args).iterator();
+        ResultStore store = new ResultStore(new File(DEFAULT_STORE));
+        String command = null;
+        String commit = null;
+        List<File> files = new ArrayList<>();
+        while (it.hasNext()) {
+            String arg = it.next();
+            if ("-store".equals(arg)) {
+                store = new ResultStore(new File(it.next()));
+            } else if ("-commit".equals(arg)) {
+                commit = it.next();
+            } else if (command == null) {
+                command = arg;
+            } else {
+                files.add(new File(arg));
+            }
+        }
+        if ("add".equals(command) && !files.isEmpty()) {
+            for (File file : files) {
+                System.out.println("Stored " + store.add(file, commit != null ? commit : currentCommit()));
+            }
+        } else if ("list".equals(command)) {
+            store.list().forEach(System.out::println);
+        } else {
+            throw new IllegalArgumentException(
+                    "Usage: ResultStore [-store dir] add [-commit id] result.json... | list");
+        }
+    }
+
+    private final File root;
+
+    ResultStore(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Copies a JMH JSON result file into the store under {@code commit} and the JDK it was run on.
+     */
+    File add(File json, String commit) throws IOException {
+        List<JsonObject> runs = read(json);
+        if (runs.isEmpty()) {
+            throw new IllegalArgumentException(json + " holds no results");
+        }
+        File directory = new File(new File(root, commit), runs.get(0).get("jdkVersion").getAsString());
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        File target = new File(directory, json.getName());
+        Files.copy(json.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    /**
+     * Stored {@code commit@jdk} pairs.
+     */
+    List<String> list() {
+        List<String> entries = new ArrayList<>();
+        for (File commit : sorted(root)) {
+            for (File jdk : sorted(commit)) {
+                entries.add(commit.getName() + "@" + jdk.getName());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Results of {@code commit}, narrowed to one JDK with {@code commit@jdk}; the JDK may be left out only when the
+     * commit was run on a single one.
+     */
+    Map<String, StoredResult> load(String selector) throws IOException {
+        int at = selector.indexOf('@');
+        String commit = at < 0 ? selector : selector.substring(0, at);
+        File commitDirectory = new File(root, commit);
+        if (!commitDirectory.isDirectory()) {
+            throw new IllegalArgumentException("No results stored for " + commit + " in " + root);
+        }
+        File jdk;
+        if (at < 0) {
+            List<File> jdks = sorted(commitDirectory);
+            if (jdks.size() != 1) {
+                List<String> stored = new ArrayList<>();
+                jdks.forEach(directory -> stored.add(commit + "@" + directory.getName()));
+                throw new IllegalArgumentException(
+                        commit + " holds results of " + jdks.size() + " JDKs, select one of " + stored);
+            }
+            jdk = jdks.get(0);
+        } else {
+            jdk = new File(commitDirectory, selector.substring(at + 1));
+            if (!jdk.isDirectory()) {
+                throw new IllegalArgumentException("No results stored for " + selector + " in " + root);
+            }
+        }
+        Map<String, StoredResult> results = new LinkedHashMap<>();
+        for (File file : sorted(jdk)) {
+            if (!file.getName().endsWith(".json")) continue;
+            for (JsonObject run : read(file)) {
+                StoredResult result = parse(run, commit);
+                results.put(result.key(), result);
+            }
+        }
+        return results;
+    }
+
+    static StoredResult parse(JsonObject run, String commit) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (run.has("params")) {
+            for (Map.Entry<String, JsonElement> param : run.getAsJsonObject("params").entrySet()) {
+                params.put(param.getKey(), param.getValue().getAsString());
+            }
+        }
+        JsonObject metric = run.getAsJsonObject("primaryMetric");
+        double low = Double.NaN;
+        double high = Double.NaN;
+        if (metric.has("scoreConfidence")) {
+            low = metric.getAsJsonArray("scoreConfidence").get(0).getAsDouble();
+            high = metric.getAsJsonArray("scoreConfidence").get(1).getAsDouble();
+        }
+        return new StoredResult(run.get("benchmark").getAsString(), run.get("mode").getAsString(), params,
+                run.get("jdkVersion").getAsString(), commit, metric.get("score").getAsDouble(),
+                metric.get("scoreError").getAsDouble(), low, high, metric.get("scoreUnit").getAsString());
+    }
+
+    private static List<JsonObject> read(File json) throws IOException {
+        List<JsonObject> runs = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(json.toPath(), StandardCharsets.UTF_8)) {
+            for (JsonElement run : JsonParser.parseReader(reader).getAsJsonArray()) {
+                runs.add(run.getAsJsonObject());
+            }
+        }
+        return runs;
+    }
+
+    private static List<File> sorted(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    /**
+     * Short hash of the checked-out commit, with {@code -dirty} appended for uncommitted changes, or
+     * {@code unknown} outside a git work tree.
+     */
+    static String currentCommit() {
+        try {
+            String commit = git("rev-parse", "--short", "HEAD");
+            return git("status", "--porcelain", "--untracked-files=no").isEmpty() ? commit : commit + "-dirty";
+        } catch (IOException | UncheckedIOException e) {
+            return "unknown";
+        }
+    }
+
+    private static String git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        StringBuilder out = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                out.append(line).append('\n');
+            }
+            if (process.waitFor() != 0) {
+                throw new IOException("git " + String.join(" ", args) + " failed: " + out);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        return out.toString().trim();
+    }
+
+}
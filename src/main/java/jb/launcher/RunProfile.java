@@ -0,0 +1,47 @@
+package jb.launcher;
+
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Fork and iteration counts for {@link Launcher}. Every profile runs at least three measurement iterations in total,
+ * so JMH can attach a confidence interval to each score; the larger ones also spread them over several forks to catch
+ * run-to-run variance from JIT and layout decisions.
+ */
+public enum RunProfile {
+
+    /**
+     * Checks that everything runs; the error bounds are wide.
+     */
+    SMOKE(1, 1, TimeValue.seconds(1), 3, TimeValue.seconds(1)),
+    STANDARD(3, 5, TimeValue.seconds(1), 5, TimeValue.seconds(1)),
+    /**
+     * For release candidates and tuning decisions.
+     */
+    RIGOROUS(5, 10, TimeValue.seconds(2), 10, TimeValue.seconds(2));
+
+    final int forks;
+    final int warmupIterations;
+    final TimeValue warmupTime;
+    final int measurementIterations;
+    final TimeValue measurementTime;
+
+    RunProfile(int forks, int warmupIterations, TimeValue warmupTime,
+               int measurementIterations, TimeValue measurementTime) {
+        this.forks = forks;
+        this.warmupIterations = warmupIterations;
+        this.warmupTime = warmupTime;
+        this.measurementIterations = measurementIterations;
+        this.measurementTime = measurementTime;
+    }
+
+    ChainedOptionsBuilder apply(ChainedOptionsBuilder builder) {
+        return builder
+                .forks(forks)
+                .warmupIterations(warmupIterations)
+                .warmupTime(warmupTime)
+                .measurementIterations(measurementIterations)
+                .measurementTime(measurementTime);
+    }
+
+}
@@ -0,0 +1,176 @@
+package jb.launcher;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the selected suites at 1, 2, 4 ... N benchmark threads, or at that many {@code parallelism} for the benchmarks
+ * driving their own pool, and reports per level the total rate, the rate per thread, the speedup over the first level
+ * and the parallel efficiency (speedup divided by the level ratio). Scaling is taken to stop at the last level that
+ * still added at least {@value #MIN_GAIN_PERCENT}% over the one before. Usage:
+ * <pre>
+ * Scaling [-axis threads|parallelism] [-max N] [Launcher options...]
+ * </pre>
+ * N defaults to the number of available processors. Everything else is passed to {@link Launcher}. Output goes to
+ * {@code <-o dir>/scaling-<timestamp>.csv}.
+ */
+public class Scaling {
+
+    static final double MIN_GAIN_PERCENT = 10;
+
+    public enum Axis {
+        THREADS {
+            @Override
+            void apply(ChainedOptionsBuilder options, int level) {
+                options.threads(level);
+            }
+        },
+        /**
+         * Sweeps the {@code parallelism} {@code @Param}. Benchmarks without one run unchanged at every level, so
+         * narrow the selection to the pool-driven ones with {@code -i}.
+         */
+        PARALLELISM {
+            @Override
+            void apply(ChainedOptionsBuilder options, int level) {
+                options.param("parallelism", String.valueOf(level));
+            }
+        };
+
+        abstract void apply(ChainedOptionsBuilder options, int level);
+    }
+
+    /**
+     * Powers of two below {@code max}, followed by {@code max} itself.
+     */
+    public static List<Integer> levels(int max) {
+        List<Integer> levels = new ArrayList<>();
+        for (int level = 1; level < max; level *= 2) {
+            levels.add(level);
+        }
+        levels.add(max);
+        return levels;
+    }
+
+    public static void main(String[] args) throws RunnerException, FileNotFoundException {
+        Axis axis = Axis.THREADS;
+        int max = Runtime.getRuntime().availableProcessors();
+        List<String> launcherArgs = new ArrayList<>();
+        Iterator<String> it = Arrays.asList(args).iterator();
+        while (it.hasNext()) {
+            String arg = it.next();
+            if ("-axis".equals(arg)) {
+                axis = Axis.valueOf(it.next().toUpperCase(Locale.ROOT));
+            } else if ("-max".equals(arg)) {
+                max = Integer.parseInt(it.next());
+            } else {
+                launcherArgs.add(arg);
+            }
+        }
+        Launcher launcher = Launcher.parse(launcherArgs);
+        Map<String, Map<Integer, RunResult>> curves = new TreeMap<>();
+        for (int level : levels(max)) {
+            ChainedOptionsBuilder options = launcher.options();
+            axis.apply(options, level);
+            for (RunResult result : new Runner(options.build()).run()) {
+                curves.computeIfAbsent(key(result, axis), k -> new LinkedHashMap<>()).put(level, result);
+            }
+        }
+        File directory = new File(launcher.output);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalStateException("Cannot create " + directory);
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File report = new File(directory, "scaling-" + stamp + ".csv");
+        try (PrintWriter out = new PrintWriter(report)) {
+            out.println("\"Benchmark\",\"" + axis.name().toLowerCase(Locale.ROOT)
+                    + "\",\"Rate\",\"Rate per thread\",\"Speedup\",\"Efficiency\",\"Unit\"");
+            for (Map.Entry<String, Map<Integer, RunResult>> curve : curves.entrySet()) {
+                report(curve.getKey(), curve.getValue(), out);
+            }
+        }
+        System.out.println("Scaling report written to " + report);
+    }
+
+    /**
+     * Benchmark, mode and params, minus the param being swept.
+     */
+    static String key(RunResult result, Axis axis) {
+        Map<String, String> params = new TreeMap<>();
+        for (String key : result.getParams().getParamsKeys()) {
+            if (axis != Axis.PARALLELISM || !"parallelism".equals(key)) {
+                params.put(key, result.getParams().getParam(key));
+            }
+        }
+        String benchmark = result.getParams().getBenchmark() + " " + result.getParams().getMode().shortLabel();
+        return params.isEmpty() ? benchmark : benchmark + " " + params;
+    }
+
+    /**
+     * Operations per time unit across all threads: throughput as reported, time-per-op modes inverted and
+     * multiplied by the number of threads that shared the work.
+     */
+    static double rate(RunResult result) {
+        Result primary = result.getPrimaryResult();
+        if (result.getParams().getMode() == Mode.Throughput) {
+            return primary.getScore();
+        }
+        return result.getParams().getThreads() / primary.getScore();
+    }
+
+    static String rateUnit(RunResult result) {
+        String unit = result.getPrimaryResult().getScoreUnit();
+        if (result.getParams().getMode() == Mode.Throughput) {
+            return unit;
+        }
+        int slash = unit.indexOf('/');
+        return slash < 0 ? "1/" + unit : unit.substring(slash + 1) + "/" + unit.substring(0, slash);
+    }
+
+    static void report(String key, Map<Integer, RunResult> curve, PrintWriter out) {
+        System.out.println(key);
+        int first = curve.keySet().iterator().next();
+        double base = rate(curve.get(first));
+        double previous = Double.NaN;
+        int knee = first;
+        boolean scaling = true;
+        for (Map.Entry<Integer, RunResult> point : curve.entrySet()) {
+            int level = point.getKey();
+            double rate = rate(point.getValue());
+            double speedup = rate / base;
+            double efficiency = speedup / ((double) level / first);
+            if (scaling && !Double.isNaN(previous)) {
+                if (rate >= previous * (1 + MIN_GAIN_PERCENT / 100)) {
+                    knee = level;
+                } else {
+                    scaling = false;
+                }
+            }
+            previous = rate;
+            String unit = rateUnit(point.getValue());
+            System.out.printf("  %4d: %14.6g %s, %14.6g per thread, speedup %5.2f, efficiency %4.0f%%%n",
+                    level, rate, unit, rate / level, speedup, efficiency * 100);
+            out.printf(Locale.ROOT, "\"%s\",%d,%s,%s,%s,%s,\"%s\"%n",
+                    key, level, rate, rate / level, speedup, efficiency, unit);
+        }
+        System.out.println("  scaling stops at " + knee);
+    }
+
+}
@@ -0,0 +1,51 @@
+package jb.launcher;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Primary score of one benchmark run as kept by {@link ResultStore}.
+ */
+final class StoredResult {
+
+    final String benchmark;
+    final String mode;
+    final Map<String, String> params;
+    final String jdk;
+    final String commit;
+    final double score;
+    final double error;
+    final double low;
+    final double high;
+    final String unit;
+
+    StoredResult(String benchmark, String mode, Map<String, String> params, String jdk, String commit,
+                 double score, double error, double low, double high, String unit) {
+        this.benchmark = benchmark;
+        this.mode = mode;
+        this.params = new TreeMap<>(params);
+        this.jdk = jdk;
+        this.commit = commit;
+        this.score = score;
+        this.error = error;
+        this.low = low;
+        this.high = high;
+        this.unit = unit;
+    }
+
+    /**
+     * Identifies the same measurement across commits and JDKs.
+     */
+    String key() {
+        return params.isEmpty() ? benchmark + " " + mode : benchmark + " " + mode + " " + params;
+    }
+
+    boolean higherIsBetter() {
+        return "thrpt".equals(mode);
+    }
+
+    boolean hasConfidence() {
+        return !Double.isNaN(low) && !Double.isNaN(high);
+    }
+
+}
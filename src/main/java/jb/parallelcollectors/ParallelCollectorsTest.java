@@ -1,20 +1,43 @@
 package jb.parallelcollectors;
 
 import com.pivovarit.collectors.ParallelCollectors;
+import jb.profile.PeakHeapProfiler;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -22,15 +45,144 @@ import java.util.stream.IntStream;
 
 public class ParallelCollectorsTest {
 
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(PeakHeapProfiler.class);
+
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long BASE_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long STRAGGLER_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double STRAGGLER_SHARE = 0.01;
+
     public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
                 .include(ParallelCollectorsTest.class.getSimpleName())
                 .forks(1)
                 .threads(8)
                 .warmupIterations(1)
-                .measurementIterations(1)
-                .build();
-        new Runner(options).run();
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8", "16"})
+        int parallelism;
+
+        ExecutorService executor;
+
+        @Setup
+        public void setup() {
+            executor = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdown();
+        }
+
+    }
+
+    public enum IoExecutor {
+        PLATFORM_FIXED {
+            @Override
+            ExecutorService create(int concurrency) {
+                return Executors.newFixedThreadPool(concurrency);
+            }
+        },
+        FORK_JOIN {
+            @Override
+            ExecutorService create(int concurrency) {
+                return new ForkJoinPool(concurrency);
+            }
+        },
+        /**
+         * One virtual thread per task. Under {@code parallelCollector_scaled_io} the collector caps the tasks in
+         * flight at {@code concurrency}; under {@code completableFuture_scaled_io} nothing does.
+         */
+        VIRTUAL {
+            @Override
+            ExecutorService create(int concurrency) {
+                return Executors.newVirtualThreadPerTaskExecutor();
+            }
+        };
+
+        abstract ExecutorService create(int concurrency);
+    }
+
+    static Executor bounded(Executor executor, int permits) {
+        Semaphore semaphore = new Semaphore(permits);
+        return task -> executor.execute(() -> {
+            semaphore.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                semaphore.release();
+            }
+        });
+    }
+
+    @State(Scope.Benchmark)
+    public static class IoPool {
+
+        @Param({"PLATFORM_FIXED", "FORK_JOIN", "VIRTUAL"})
+        IoExecutor kind;
+        @Param({"64", "256", "1024"})
+        int concurrency;
+
+        ExecutorService executor;
+
+        @Setup
+        public void setup() {
+            executor = kind.create(concurrency);
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdown();
+        }
+
+    }
+
+    /**
+     * A virtual thread per task, with at most {@code concurrency} of them past a {@link Semaphore} at a time: the
+     * virtual-thread way to cap in-flight I/O without a pool, for {@code completableFuture_boundedVirtual_io}.
+     */
+    @State(Scope.Benchmark)
+    public static class BoundedVirtualPool {
+
+        @Param({"64", "256", "1024"})
+        int concurrency;
+
+        ExecutorService service;
+        Executor executor;
+
+        @Setup
+        public void setup() {
+            service = Executors.newVirtualThreadPerTaskExecutor();
+            executor = bounded(service, concurrency);
+        }
+
+        @TearDown
+        public void tearDown() {
+            service.shutdown();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class IoLoad {
+
+        @Param({"1000", "10000", "100000", "1000000"})
+        int elements;
+
+        List<Integer> list;
+
+        @Setup
+        public void setup() {
+            list = IntStream.range(0, elements).boxed().collect(Collectors.toList());
+        }
+
     }
 
     @State(Scope.Benchmark)
@@ -47,6 +199,26 @@ public class ParallelCollectorsTest {
         UnaryOperator<BigInteger> timesFive = i -> i.multiply(BigInteger.valueOf(5));
         UnaryOperator<BigInteger> minusHundred = i -> i.subtract(BigInteger.valueOf(100));
 
+        BigInteger[] fanOut(BigInteger square) {
+            return new BigInteger[]{plusTwo.apply(square), timesFive.apply(square), minusHundred.apply(square)};
+        }
+
+        BigInteger[] squareAll(List<Integer> values) {
+            BigInteger[] squares = new BigInteger[values.size()];
+            for (int i = 0; i < squares.length; i++) {
+                squares[i] = apply(values.get(i));
+            }
+            return squares;
+        }
+
+        static BigInteger[] mapAll(BigInteger[] values, UnaryOperator<BigInteger> operator) {
+            BigInteger[] result = new BigInteger[values.length];
+            for (int i = 0; i < values.length; i++) {
+                result[i] = operator.apply(values[i]);
+            }
+            return result;
+        }
+
     }
 
     @State(Scope.Benchmark)
@@ -66,6 +238,109 @@ public class ParallelCollectorsTest {
 
     }
 
+    /**
+     * Per-element latency of {@link JitteredSleeper}. All three average around a millisecond; they differ in the tail.
+     */
+    public enum Latency {
+        FIXED {
+            @Override
+            long nanos(Random random) {
+                return BASE_LATENCY_NANOS;
+            }
+        },
+        EXPONENTIAL {
+            @Override
+            long nanos(Random random) {
+                return (long) (-Math.log(1 - random.nextDouble()) * BASE_LATENCY_NANOS);
+            }
+        },
+        BIMODAL {
+            @Override
+            long nanos(Random random) {
+                return random.nextDouble() < STRAGGLER_SHARE ? STRAGGLER_LATENCY_NANOS : BASE_LATENCY_NANOS;
+            }
+        };
+
+        abstract long nanos(Random random);
+    }
+
+    @State(Scope.Benchmark)
+    public static class JitteredSleeper implements Function<Integer, Integer> {
+
+        @Param({"FIXED", "EXPONENTIAL", "BIMODAL"})
+        Latency latency;
+
+        @Override
+        public Integer apply(Integer integer) {
+            long nanos = latency.nanos(ThreadLocalRandom.current());
+            long deadline = System.nanoTime() + nanos;
+            for (long remaining = nanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+            }
+            return integer;
+        }
+
+        final List<Integer> list = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+    }
+
+    /**
+     * Hedge delays from twice the 1 ms base latency, which duplicates much of the ordinary tail too, up to 20 ms,
+     * which only ever fires for the 50 ms stragglers.
+     */
+    @State(Scope.Benchmark)
+    public static class Hedge {
+
+        @Param({"2", "5", "20"})
+        int hedgeAfterMillis;
+
+        ScheduledExecutorService scheduler;
+
+        @Setup
+        public void setup() {
+            scheduler = Executors.newSingleThreadScheduledExecutor();
+        }
+
+        @TearDown
+        public void tearDown() {
+            scheduler.shutdown();
+        }
+
+    }
+
+    /**
+     * Runs {@code call} on {@code executor} and, if it is still running {@code hedgeAfterMillis} after it started,
+     * issues it once more; whichever copy finishes first completes the result. The timer starts when the primary
+     * attempt begins running, not when it is queued, and fires on {@code scheduler} so a saturated executor cannot
+     * delay it. The result fails only once every issued attempt has failed.
+     */
+    static <T> CompletableFuture<T> hedged(Supplier<T> call, Executor executor, ScheduledExecutorService scheduler,
+                                           int hedgeAfterMillis) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        BiConsumer<T, Throwable> complete = (value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+            } else if (pending.decrementAndGet() == 0) {
+                result.completeExceptionally(failure);
+            }
+        };
+        CompletableFuture.supplyAsync(() -> {
+            ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+                if (!result.isDone()) {
+                    pending.incrementAndGet();
+                    CompletableFuture.supplyAsync(call, executor).whenComplete(complete);
+                }
+            }, hedgeAfterMillis, TimeUnit.MILLISECONDS);
+            try {
+                return call.get();
+            } finally {
+                hedge.cancel(false);
+            }
+        }, executor).whenComplete(complete);
+        return result;
+    }
+
     @Benchmark
     public void parallelStream_blocking_cpu(Squarer squarer, Blackhole blackhole) {
         List<BigInteger> list = squarer.list.parallelStream().map(squarer).collect(Collectors.toList());
@@ -73,9 +348,19 @@ public class ParallelCollectorsTest {
     }
 
     @Benchmark
-    public void parallelCollector_blocking_cpu(Squarer squarer, Blackhole blackhole) {
-        Executor executor = new ForkJoinPool(8);
-        List<BigInteger> list = squarer.list.parallelStream().collect(ParallelCollectors.parallelToList(squarer, executor)).join();
+    public void parallelCollector_blocking_cpu(Squarer squarer, Pool pool, Blackhole blackhole) {
+        List<BigInteger> list = squarer.list.stream()
+                .collect(ParallelCollectors.parallel(squarer, Collectors.toList(), pool.executor, pool.parallelism))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void parallelCollectorBatching_blocking_cpu(Squarer squarer, Pool pool, Blackhole blackhole) {
+        List<BigInteger> list = squarer.list.stream()
+                .collect(ParallelCollectors.Batching.parallel(squarer, Collectors.toList(),
+                        pool.executor, pool.parallelism))
+                .join();
         blackhole.consume(list);
     }
 
@@ -86,9 +371,75 @@ public class ParallelCollectorsTest {
     }
 
     @Benchmark
-    public void parallelCollector_blocking_io(Sleeper sleeper, Blackhole blackhole) {
-        Executor executor = new ForkJoinPool(8);
-        List<Integer> list = sleeper.list.parallelStream().collect(ParallelCollectors.parallelToList(sleeper, executor)).join();
+    public void parallelCollector_blocking_io(Sleeper sleeper, Pool pool, Blackhole blackhole) {
+        List<Integer> list = sleeper.list.stream()
+                .collect(ParallelCollectors.parallel(sleeper, Collectors.toList(), pool.executor, pool.parallelism))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void parallelCollectorBatching_blocking_io(Sleeper sleeper, Pool pool, Blackhole blackhole) {
+        List<Integer> list = sleeper.list.stream()
+                .collect(ParallelCollectors.Batching.parallel(sleeper, Collectors.toList(),
+                        pool.executor, pool.parallelism))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void parallelStream_jittered_io(JitteredSleeper sleeper, Blackhole blackhole) {
+        List<Integer> list = sleeper.list.parallelStream().map(sleeper).collect(Collectors.toList());
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void parallelCollector_jittered_io(JitteredSleeper sleeper, Pool pool, Blackhole blackhole) {
+        List<Integer> list = sleeper.list.stream()
+                .collect(ParallelCollectors.parallel(sleeper, Collectors.toList(), pool.executor, pool.parallelism))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void hedged_jittered_io(JitteredSleeper sleeper, Hedge hedge, Pool pool, Blackhole blackhole) {
+        List<CompletableFuture<Integer>> futures = sleeper.list.stream()
+                .map(i -> hedged(() -> sleeper.apply(i), pool.executor, hedge.scheduler, hedge.hedgeAfterMillis))
+                .collect(Collectors.toList());
+        List<Integer> list = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void parallelCollector_scaled_io(Sleeper sleeper, IoLoad load, IoPool pool, Blackhole blackhole) {
+        List<Integer> list = load.list.stream()
+                .collect(ParallelCollectors.parallel(sleeper, Collectors.toList(), pool.executor, pool.concurrency))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void completableFuture_scaled_io(Sleeper sleeper, IoLoad load, IoPool pool, Blackhole blackhole) {
+        List<CompletableFuture<Integer>> futures = load.list.stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> sleeper.apply(i), pool.executor))
+                .collect(Collectors.toList());
+        List<Integer> list = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void completableFuture_boundedVirtual_io(Sleeper sleeper, IoLoad load, BoundedVirtualPool pool,
+                                                    Blackhole blackhole) {
+        List<CompletableFuture<Integer>> futures = load.list.stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> sleeper.apply(i), pool.executor))
+                .collect(Collectors.toList());
+        List<Integer> list = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
         blackhole.consume(list);
     }
 
@@ -108,12 +459,48 @@ public class ParallelCollectorsTest {
         blackhole.consume(list);
     }
 
-//    @Benchmark
-//    public void parallelCollector_async_cpu(Squarer squarer, Blackhole blackhole) throws ExecutionException, InterruptedException {
-//        Executor executor1 = ForkJoinPool.commonPool();
-//        CompletableFuture<List<BigInteger>> list1 = squarer.list.parallelStream().collect(ParallelCollectors.parallelToList(squarer.andThen(squarer.plusTwo), executor1));
-//        list1.get();
-//        blackhole.consume(list1.get());
-//    }
+    @Benchmark
+    public void parallelCollector_async_cpu(Squarer squarer, Pool pool, Blackhole blackhole) {
+        CompletableFuture<List<BigInteger>> plusTwo = squarer.list.stream()
+                .collect(ParallelCollectors.parallel(squarer.andThen(squarer.plusTwo), Collectors.toList(),
+                        pool.executor, pool.parallelism));
+        CompletableFuture<List<BigInteger>> timesFive = squarer.list.stream()
+                .collect(ParallelCollectors.parallel(squarer.andThen(squarer.timesFive), Collectors.toList(),
+                        pool.executor, pool.parallelism));
+        CompletableFuture<List<BigInteger>> minusHundred = squarer.list.stream()
+                .collect(ParallelCollectors.parallel(squarer.andThen(squarer.minusHundred), Collectors.toList(),
+                        pool.executor, pool.parallelism));
+        blackhole.consume(plusTwo.join());
+        blackhole.consume(timesFive.join());
+        blackhole.consume(minusHundred.join());
+    }
+
+    @Benchmark
+    public void parallelCollector_pipelined_cpu(Squarer squarer, Pool pool, Blackhole blackhole) {
+        List<BigInteger[]> list = squarer.list.stream()
+                .collect(ParallelCollectors.Batching.parallel(squarer.andThen(squarer::fanOut), Collectors.toList(),
+                        pool.executor, pool.parallelism))
+                .join();
+        blackhole.consume(list);
+    }
+
+    @Benchmark
+    public void completableFuture_pipelined_cpu(Squarer squarer, Pool pool, Blackhole blackhole) {
+        List<Integer> input = squarer.list;
+        int chunks = pool.parallelism * CHUNKS_PER_THREAD;
+        int chunkSize = (input.size() + chunks - 1) / chunks;
+        List<CompletableFuture<BigInteger[]>> outputs = new ArrayList<>(3 * chunks);
+        for (int from = 0; from < input.size(); from += chunkSize) {
+            List<Integer> chunk = input.subList(from, Math.min(from + chunkSize, input.size()));
+            CompletableFuture<BigInteger[]> squares =
+                    CompletableFuture.supplyAsync(() -> squarer.squareAll(chunk), pool.executor);
+            outputs.add(squares.thenApplyAsync(s -> Squarer.mapAll(s, squarer.plusTwo), pool.executor));
+            outputs.add(squares.thenApplyAsync(s -> Squarer.mapAll(s, squarer.timesFive), pool.executor));
+            outputs.add(squares.thenApplyAsync(s -> Squarer.mapAll(s, squarer.minusHundred), pool.executor));
+        }
+        for (CompletableFuture<BigInteger[]> output : outputs) {
+            blackhole.consume(output.join());
+        }
+    }
 
 }
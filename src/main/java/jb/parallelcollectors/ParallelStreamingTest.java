@@ -0,0 +1,180 @@
+package jb.parallelcollectors;
+
+import com.pivovarit.collectors.ParallelCollectors;
+import jb.profile.FirstResultProfiler;
+import jb.profile.PeakHeapProfiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Streams squared inputs to a sink instead of materializing them first. The input is generated on the fly, so the heap
+ * only ever holds what each strategy keeps in flight: {@code peak.heap}, the largest post-GC occupancy, shows the cost
+ * of collect-then-iterate against the streaming collectors and the bounded queue, {@code first.result} how long the
+ * sink waits for its first element, and the primary score the sustained rate of full passes over {@code elements}
+ * inputs. The clock for {@code first.result} starts before the input is consumed in every variant. The streaming
+ * collectors only hand back their stream after all input has been submitted to the executor and give no back-pressure,
+ * so they hold the whole backlog of pending tasks and results; only the bounded queue keeps the heap flat. Forks get a
+ * 4 GB heap so that backlog fits at 1e7 elements and every variant reports a figure instead of failing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(jvmArgsAppend = "-Xmx4g")
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParallelStreamingTest {
+
+    public static final List<Class<? extends Profiler>> PROFILERS =
+            Arrays.asList(PeakHeapProfiler.class, FirstResultProfiler.class);
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(ParallelStreamingTest.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(1)
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Input {
+
+        @Param({"100000", "1000000", "10000000"})
+        int elements;
+
+        Stream<Integer> stream() {
+            return IntStream.range(0, elements).boxed();
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+        @Param({"1", "2", "4", "8", "16"})
+        int parallelism;
+        @Param({"1024"})
+        int capacity;
+
+        ExecutorService executor;
+
+        @Setup
+        public void setup() {
+            executor = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown
+        public void tearDown() {
+            executor.shutdown();
+        }
+
+    }
+
+    static BigInteger square(Integer value) {
+        return BigInteger.valueOf(value).multiply(BigInteger.valueOf(value));
+    }
+
+    /**
+     * Consumes results on the benchmark thread and reports how long the first one took to arrive.
+     */
+    static final class Sink implements Consumer<Object> {
+
+        private final Blackhole blackhole;
+        private final long start = System.nanoTime();
+        private boolean first = true;
+
+        Sink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void accept(Object result) {
+            if (first) {
+                first = false;
+                FirstResultProfiler.record(System.nanoTime() - start);
+            }
+            blackhole.consume(result);
+        }
+
+    }
+
+    @Benchmark
+    public void collectThenIterate(Input input, Pool pool, Blackhole blackhole) {
+        Sink sink = new Sink(blackhole);
+        List<BigInteger> list = input.stream()
+                .collect(ParallelCollectors.parallel(ParallelStreamingTest::square, Collectors.toList(),
+                        pool.executor, pool.parallelism))
+                .join();
+        list.forEach(sink);
+    }
+
+    @Benchmark
+    public void parallelToOrderedStream(Input input, Pool pool, Blackhole blackhole) {
+        Sink sink = new Sink(blackhole);
+        input.stream()
+                .collect(ParallelCollectors.parallelToOrderedStream(ParallelStreamingTest::square,
+                        pool.executor, pool.parallelism))
+                .forEach(sink);
+    }
+
+    @Benchmark
+    public void parallelToStream(Input input, Pool pool, Blackhole blackhole) {
+        Sink sink = new Sink(blackhole);
+        input.stream()
+                .collect(ParallelCollectors.parallelToStream(
+                        ParallelStreamingTest::square, pool.executor, pool.parallelism))
+                .forEach(sink);
+    }
+
+    /**
+     * {@code parallelism} workers pull the next input and block on a queue of {@code capacity} results, so producers
+     * never run more than a queue ahead of the sink. Results arrive unordered.
+     */
+    @Benchmark
+    public void boundedQueue(Input input, Pool pool, Blackhole blackhole) throws InterruptedException {
+        Sink sink = new Sink(blackhole);
+        BlockingQueue<BigInteger> queue = new ArrayBlockingQueue<>(pool.capacity);
+        AtomicInteger next = new AtomicInteger();
+        for (int i = 0; i < pool.parallelism; i++) {
+            pool.executor.execute(() -> {
+                try {
+                    for (int value = next.getAndIncrement(); value < input.elements; value = next.getAndIncrement()) {
+                        queue.put(square(value));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int i = 0; i < input.elements; i++) {
+            sink.accept(queue.take());
+        }
+    }
+
+}
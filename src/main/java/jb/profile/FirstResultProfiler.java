@@ -0,0 +1,52 @@
+package jb.profile;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports the mean time-to-first-result of each iteration as {@code first.result}. Benchmarks feed it through
+ * {@link #record(long)} once per invocation; iterations that never record report nothing.
+ */
+public class FirstResultProfiler implements InternalProfiler {
+
+    private static final LongAdder TOTAL_NANOS = new LongAdder();
+    private static final LongAdder SAMPLES = new LongAdder();
+
+    public static void record(long nanos) {
+        TOTAL_NANOS.add(nanos);
+        SAMPLES.increment();
+    }
+
+    @Override
+    public String getDescription() {
+        return "Mean time-to-first-result per iteration";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        TOTAL_NANOS.reset();
+        SAMPLES.reset();
+    }
+
+    @Override
+    public Collection<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                          IterationParams iterationParams, IterationResult result) {
+        long samples = SAMPLES.sum();
+        if (samples == 0) {
+            return Collections.emptyList();
+        }
+        double mean = (double) TOTAL_NANOS.sum() / samples / TimeUnit.MILLISECONDS.toNanos(1);
+        return Collections.singletonList(new ScalarResult("first.result", mean, "ms", AggregationPolicy.AVG));
+    }
+
+}
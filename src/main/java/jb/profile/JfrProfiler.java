@@ -0,0 +1,82 @@
+package jb.profile;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.profile.ProfilerException;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Records the measurement iterations of each benchmark with Flight Recorder's {@code profile} settings and dumps them
+ * to {@code <directory>/<benchmark>[-<param>=<value>...].jfr}. The directory is the profiler option, e.g.
+ * {@code -prof jb.profile.JfrProfiler:target/jfr}, and defaults to {@value #DEFAULT_DIRECTORY}.
+ */
+public class JfrProfiler implements InternalProfiler {
+
+    static final String DEFAULT_DIRECTORY = "target/jfr";
+
+    private final File directory;
+    private Recording recording;
+    private int measurements;
+
+    public JfrProfiler(String initLine) throws ProfilerException {
+        directory = new File(initLine == null || initLine.trim().isEmpty() ? DEFAULT_DIRECTORY : initLine.trim());
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new ProfilerException("Cannot create " + directory);
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "Flight Recorder recording of the measurement iterations";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        if (iterationParams.getType() == IterationType.MEASUREMENT && recording == null) {
+            try {
+                recording = new Recording(Configuration.getConfiguration("profile"));
+            } catch (IOException | ParseException e) {
+                throw new IllegalStateException("Cannot load the JFR profile settings", e);
+            }
+            recording.start();
+        }
+    }
+
+    @Override
+    public Collection<? extends Result<?>> afterIteration(BenchmarkParams benchmarkParams,
+                                                          IterationParams iterationParams, IterationResult result) {
+        if (iterationParams.getType() == IterationType.MEASUREMENT && ++measurements == iterationParams.getCount()) {
+            recording.stop();
+            try {
+                recording.dump(new File(directory, fileName(benchmarkParams)).toPath());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot write the JFR recording to " + directory, e);
+            } finally {
+                recording.close();
+                recording = null;
+                measurements = 0;
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    static String fileName(BenchmarkParams benchmarkParams) {
+        StringBuilder name = new StringBuilder(benchmarkParams.getBenchmark());
+        for (String key : benchmarkParams.getParamsKeys()) {
+            name.append('-').append(key).append('=').append(benchmarkParams.getParam(key));
+        }
+        return name.toString().replaceAll("[^A-Za-z0-9._=-]", "_") + ".jfr";
+    }
+
+}
@@ -0,0 +1,267 @@
+package jb.streamex;
+
+import jb.dataset.Dataset;
+import jb.dataset.Datasets;
+import one.util.streamex.MoreCollectors;
+import one.util.streamex.StreamEx;
+import org.eclipse.collections.impl.list.mutable.FastList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Grouping and aggregation of keyed events across JDK collectors, StreamEx and Eclipse Collections. Key cardinality
+ * and input size vary independently, so both the few-fat-groups and the many-thin-groups ends are covered, and the key
+ * {@link Dataset} adds skewed, clustered and pre-sorted input; the {@code gc.alloc.rate.norm} column shows what each
+ * path allocates per run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class StreamExGroupingTest {
+
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
+    private static final int TOP = 10;
+    private static final Comparator<Event> BY_AMOUNT = Comparator.comparingLong(e -> e.amount);
+
+    public static void main(String[] args) throws RunnerException {
+        ChainedOptionsBuilder builder = new OptionsBuilder()
+                .include(StreamExGroupingTest.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(1)
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
+    }
+
+    static final class Event {
+
+        final int key;
+        final long amount;
+
+        Event(int key, long amount) {
+            this.key = key;
+            this.amount = amount;
+        }
+
+        boolean large() {
+            return amount >= Provider.MAX_AMOUNT / 2;
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        static final int MAX_AMOUNT = 1_000;
+
+        @Param({"10", "1000", "1000000"})
+        int cardinality;
+        @Param({"100000", "1000000", "10000000"})
+        int size;
+        @Param({"UNIFORM", "ZIPFIAN", "CLUSTERED", "SORTED"})
+        Dataset keys;
+
+        List<Event> events;
+        FastList<Event> eclipseEvents;
+
+        @Setup
+        public void setup() {
+            Random random = Datasets.random();
+            IntBuffer keyValues = Datasets.values(keys, size, cardinality, 0);
+            events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                events.add(new Event(keyValues.get(i), random.nextInt(MAX_AMOUNT)));
+            }
+            eclipseEvents = FastList.newList(events);
+        }
+
+    }
+
+    @Benchmark
+    public void stream_groupingCounting(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream().collect(Collectors.groupingBy(e -> e.key, Collectors.counting())));
+    }
+
+    @Benchmark
+    public void stream_groupingByConcurrentCounting(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream()
+                .collect(Collectors.groupingByConcurrent(e -> e.key, Collectors.counting())));
+    }
+
+    @Benchmark
+    public void streamEx_groupingCounting(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events)
+                .mapToEntry(e -> e.key, Function.identity())
+                .grouping(MoreCollectors.countingInt()));
+    }
+
+    @Benchmark
+    public void eclipse_countBy(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.countBy(e -> e.key));
+    }
+
+    @Benchmark
+    public void stream_groupingSumming(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream()
+                .collect(Collectors.groupingBy(e -> e.key, Collectors.summingLong(e -> e.amount))));
+    }
+
+    @Benchmark
+    public void stream_groupingByConcurrentSumming(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream()
+                .collect(Collectors.groupingByConcurrent(e -> e.key, Collectors.summingLong(e -> e.amount))));
+    }
+
+    @Benchmark
+    public void streamEx_groupingSumming(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events)
+                .mapToEntry(e -> e.key, e -> e.amount)
+                .grouping(Collectors.summingLong(Long::longValue)));
+    }
+
+    @Benchmark
+    public void eclipse_aggregateBySumming(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.aggregateBy(e -> e.key, () -> 0L, (sum, e) -> sum + e.amount));
+    }
+
+    @Benchmark
+    public void eclipse_sumByLong(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.sumByLong(e -> e.key, e -> e.amount));
+    }
+
+    @Benchmark
+    public void stream_groupingToList(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream().collect(Collectors.groupingBy(e -> e.key)));
+    }
+
+    @Benchmark
+    public void stream_groupingByConcurrentToList(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream().collect(Collectors.groupingByConcurrent(e -> e.key)));
+    }
+
+    @Benchmark
+    public void streamEx_groupingToList(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events).mapToEntry(e -> e.key, Function.identity()).grouping());
+    }
+
+    @Benchmark
+    public void eclipse_groupBy(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.groupBy(e -> e.key));
+    }
+
+    @Benchmark
+    public void stream_partitioningBy(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream()
+                .collect(Collectors.partitioningBy(Event::large, Collectors.counting())));
+    }
+
+    @Benchmark
+    public void stream_partitioningByParallel(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream()
+                .collect(Collectors.partitioningBy(Event::large, Collectors.counting())));
+    }
+
+    @Benchmark
+    public void streamEx_partitioningBy(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events)
+                .collect(MoreCollectors.partitioningBy(Event::large, MoreCollectors.countingInt())));
+    }
+
+    @Benchmark
+    public void eclipse_partition(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.partition(Event::large));
+    }
+
+    @Benchmark
+    public void stream_distinctByKey(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream()
+                .collect(Collectors.toMap(e -> e.key, Function.identity(),
+                        (first, second) -> first, LinkedHashMap::new)).values());
+    }
+
+    @Benchmark
+    public void stream_distinctByKeyParallel(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream()
+                .collect(Collectors.toMap(e -> e.key, Function.identity(),
+                        (first, second) -> first, LinkedHashMap::new)).values());
+    }
+
+    @Benchmark
+    public void streamEx_distinctByKey(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events).distinct(e -> e.key).toList());
+    }
+
+    @Benchmark
+    public void eclipse_distinctBy(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.eclipseEvents.distinctBy(e -> e.key));
+    }
+
+    @Benchmark
+    public void stream_topK(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.stream()
+                .sorted(BY_AMOUNT.reversed())
+                .limit(TOP)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void stream_topKParallel(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.events.parallelStream()
+                .sorted(BY_AMOUNT.reversed())
+                .limit(TOP)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void streamEx_topK(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events).collect(MoreCollectors.greatest(BY_AMOUNT, TOP)));
+    }
+
+    @Benchmark
+    public void streamEx_topKParallel(Provider provider, Blackhole blackhole) {
+        blackhole.consume(StreamEx.of(provider.events).parallel().collect(MoreCollectors.greatest(BY_AMOUNT, TOP)));
+    }
+
+    /**
+     * Eclipse Collections has no bounded top-K, so the baseline is a hand-written min-heap of {@value #TOP}.
+     */
+    @Benchmark
+    public void loop_topK(Provider provider, Blackhole blackhole) {
+        PriorityQueue<Event> top = new PriorityQueue<>(TOP + 1, BY_AMOUNT);
+        for (Event event : provider.events) {
+            top.offer(event);
+            if (top.size() > TOP) {
+                top.poll();
+            }
+        }
+        blackhole.consume(top);
+    }
+
+}
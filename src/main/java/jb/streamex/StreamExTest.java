@@ -2,8 +2,13 @@ package jb.streamex;
 
 import one.util.streamex.EntryStream;
 import one.util.streamex.StreamEx;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
@@ -18,30 +23,51 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+/**
+ * Map inversion and re-keying over lookup tables of up to {@code 1e7} entries. Runs single-threaded so the parallel
+ * variants, which fan out over the common pool, show how each path scales across cores.
+ */
+@Fork(jvmArgsAppend = "-Xmx4g")
 public class StreamExTest {
 
     public static void main(String[] args) throws RunnerException {
         Options options = new OptionsBuilder()
                 .include(StreamExTest.class.getSimpleName())
                 .forks(1)
-                .threads(8)
                 .warmupIterations(1)
                 .measurementIterations(1)
                 .build();
         new Runner(options).run();
     }
 
+    /**
+     * Initial {@link HashMap} capacity that holds {@code size} entries without a rehash.
+     */
+    static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
     @State(Scope.Benchmark)
     public static class Provider {
 
-        Map<Integer, String> map = new HashMap() {{
-            put(1, "one");
-            put(2, "two");
-            put(3, "three");
-            put(4, "four");
-            put(5, "five");
-        }};
-        List<String> strings = new ArrayList<>(map.values());
+        @Param({"5", "1000", "100000", "1000000", "10000000"})
+        int size;
+
+        Map<Integer, String> map;
+        IntObjectHashMap<String> primitiveMap;
+        List<String> strings;
+
+        @Setup
+        public void setup() {
+            map = new HashMap<>(capacity(size));
+            primitiveMap = new IntObjectHashMap<>(size);
+            for (int i = 1; i <= size; i++) {
+                String value = "value-" + i;
+                map.put(i, value);
+                primitiveMap.put(i, value);
+            }
+            strings = new ArrayList<>(map.values());
+        }
 
     }
 
@@ -63,6 +89,35 @@ public class StreamExTest {
         blackhole.consume(reversed);
     }
 
+    @Benchmark
+    public void streamEx_reverseMapParallel(Provider provider, Blackhole blackhole) {
+        Map<String, Integer> reversed = EntryStream.of(provider.map).parallel().invert().toMap();
+        blackhole.consume(reversed);
+    }
+
+    @Benchmark
+    public void stream_reverseMapConcurrent(Provider provider, Blackhole blackhole) {
+        Map<String, Integer> reversed = provider.map.entrySet().parallelStream()
+                .collect(Collectors.toConcurrentMap(Map.Entry::getValue, Map.Entry::getKey));
+        blackhole.consume(reversed);
+    }
+
+    @Benchmark
+    public void loop_reverseMap(Provider provider, Blackhole blackhole) {
+        Map<String, Integer> reversed = new HashMap<>(capacity(provider.map.size()));
+        for (Map.Entry<Integer, String> e : provider.map.entrySet()) {
+            reversed.put(e.getValue(), e.getKey());
+        }
+        blackhole.consume(reversed);
+    }
+
+    @Benchmark
+    public void eclipse_reverseMap(Provider provider, Blackhole blackhole) {
+        ObjectIntHashMap<String> reversed = new ObjectIntHashMap<>(provider.primitiveMap.size());
+        provider.primitiveMap.forEachKeyValue((key, value) -> reversed.put(value, key));
+        blackhole.consume(reversed);
+    }
+
     @Benchmark
     public void streamEx_mapMappingImmutable(Provider provider, Blackhole blackhole) {
         Map<BigInteger, Integer> map = EntryStream.of(provider.map)
@@ -88,6 +143,42 @@ public class StreamExTest {
         blackhole.consume(map);
     }
 
+    @Benchmark
+    public void streamEx_mapMappingParallel(Provider provider, Blackhole blackhole) {
+        Map<BigInteger, Integer> map = EntryStream.of(provider.map)
+                .parallel()
+                .mapKeys(i -> BigInteger.valueOf(i).multiply(BigInteger.valueOf(i)))
+                .mapValues(String::length)
+                .toMap();
+        blackhole.consume(map);
+    }
+
+    @Benchmark
+    public void stream_mapMappingConcurrent(Provider provider, Blackhole blackhole) {
+        Map<BigInteger, Integer> map = provider.map.entrySet().parallelStream()
+                .collect(Collectors.toConcurrentMap(
+                        e -> BigInteger.valueOf(e.getKey()).multiply(BigInteger.valueOf(e.getKey())),
+                        e -> e.getValue().length()));
+        blackhole.consume(map);
+    }
+
+    @Benchmark
+    public void loop_mapMapping(Provider provider, Blackhole blackhole) {
+        Map<BigInteger, Integer> map = new HashMap<>(capacity(provider.map.size()));
+        for (Map.Entry<Integer, String> e : provider.map.entrySet()) {
+            map.put(BigInteger.valueOf(e.getKey()).multiply(BigInteger.valueOf(e.getKey())), e.getValue().length());
+        }
+        blackhole.consume(map);
+    }
+
+    @Benchmark
+    public void eclipse_mapMapping(Provider provider, Blackhole blackhole) {
+        ObjectIntHashMap<BigInteger> map = new ObjectIntHashMap<>(provider.primitiveMap.size());
+        provider.primitiveMap.forEachKeyValue((key, value) ->
+                map.put(BigInteger.valueOf(key).multiply(BigInteger.valueOf(key)), value.length()));
+        blackhole.consume(map);
+    }
+
     @Benchmark
     public void streamEx_pairMap(Provider provider, Blackhole blackhole) {
         List<String> result = StreamEx.of(provider.strings).pairMap((s1, s2) -> s1 + " + " + s2).toList();
@@ -96,9 +187,9 @@ public class StreamExTest {
 
     @Benchmark
     public void stream_pairMap(Provider provider, Blackhole blackhole) {
-        List<String> result = new ArrayList<>();
-        for (int i = 0; i < provider.strings.size() / 2; i++) {
-            result.add(provider.strings.get(2 * i + 1) + " + " + provider.strings.get(2 * i + 1));
+        List<String> result = new ArrayList<>(Math.max(provider.strings.size() - 1, 0));
+        for (int i = 1; i < provider.strings.size(); i++) {
+            result.add(provider.strings.get(i - 1) + " + " + provider.strings.get(i));
         }
         blackhole.consume(result);
     }
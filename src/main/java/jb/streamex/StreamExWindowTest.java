@@ -0,0 +1,209 @@
+package jb.streamex;
+
+import jb.dataset.Datasets;
+import one.util.streamex.StreamEx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Pairwise and windowed operations over a time series. Each {@link Operation} pairs a StreamEx pipeline with a
+ * hand-written loop; {@link Provider#setup()} checks that the sequential and parallel pipelines both produce exactly
+ * what the loop does before anything is measured.
+ */
+@Fork(jvmArgsAppend = "-Xmx4g")
+public class StreamExWindowTest {
+
+    private static final int WINDOW = 8;
+    private static final int MAX_GAP = 1;
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StreamExWindowTest.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(1)
+                .measurementIterations(1)
+                .build();
+        new Runner(options).run();
+    }
+
+    public enum Operation {
+        PAIR_MAP {
+            @Override
+            List<?> streamEx(List<Integer> values, boolean parallel) {
+                return of(values, parallel).pairMap((previous, next) -> next - previous).toList();
+            }
+
+            @Override
+            List<?> loop(List<Integer> values) {
+                List<Integer> deltas = new ArrayList<>(Math.max(values.size() - 1, 0));
+                for (int i = 1; i < values.size(); i++) {
+                    deltas.add(values.get(i) - values.get(i - 1));
+                }
+                return deltas;
+            }
+        },
+        SLIDING_WINDOW {
+            @Override
+            List<?> streamEx(List<Integer> values, boolean parallel) {
+                StreamEx<List<Integer>> windows = StreamEx.ofSubLists(values, WINDOW, 1);
+                return (parallel ? windows.parallel() : windows)
+                        .map(window -> window.stream().mapToInt(Integer::intValue).sum())
+                        .toList();
+            }
+
+            /**
+             * Sums every window from scratch, as the pipeline does, rather than keeping a running sum: the comparison
+             * is about the per-window overhead, not about a better algorithm only the loop gets.
+             */
+            @Override
+            List<?> loop(List<Integer> values) {
+                List<Integer> sums = new ArrayList<>(Math.max(values.size() - WINDOW + 1, 1));
+                for (int from = 0; from + WINDOW <= values.size(); from++) {
+                    int sum = 0;
+                    for (int i = from; i < from + WINDOW; i++) {
+                        sum += values.get(i);
+                    }
+                    sums.add(sum);
+                }
+                return sums;
+            }
+        },
+        GROUP_RUNS {
+            @Override
+            List<?> streamEx(List<Integer> values, boolean parallel) {
+                return of(values, parallel).groupRuns(Integer::equals).toList();
+            }
+
+            @Override
+            List<?> loop(List<Integer> values) {
+                List<List<Integer>> runs = new ArrayList<>();
+                List<Integer> run = null;
+                for (Integer value : values) {
+                    if (run == null || !run.get(run.size() - 1).equals(value)) {
+                        run = new ArrayList<>();
+                        runs.add(run);
+                    }
+                    run.add(value);
+                }
+                return runs;
+            }
+        },
+        COLLAPSE {
+            @Override
+            List<?> streamEx(List<Integer> values, boolean parallel) {
+                return of(values, parallel).collapse(Integer::equals).toList();
+            }
+
+            @Override
+            List<?> loop(List<Integer> values) {
+                List<Integer> collapsed = new ArrayList<>();
+                for (Integer value : values) {
+                    if (collapsed.isEmpty() || !collapsed.get(collapsed.size() - 1).equals(value)) {
+                        collapsed.add(value);
+                    }
+                }
+                return collapsed;
+            }
+        },
+        INTERVAL_MAP {
+            @Override
+            List<?> streamEx(List<Integer> values, boolean parallel) {
+                return of(values, parallel)
+                        .intervalMap((previous, next) -> Math.abs(next - previous) <= MAX_GAP,
+                                (first, last) -> last - first)
+                        .toList();
+            }
+
+            @Override
+            List<?> loop(List<Integer> values) {
+                List<Integer> spans = new ArrayList<>();
+                if (values.isEmpty()) {
+                    return spans;
+                }
+                int first = values.get(0);
+                int previous = first;
+                for (int i = 1; i < values.size(); i++) {
+                    int next = values.get(i);
+                    if (Math.abs(next - previous) > MAX_GAP) {
+                        spans.add(previous - first);
+                        first = next;
+                    }
+                    previous = next;
+                }
+                spans.add(previous - first);
+                return spans;
+            }
+        };
+
+        abstract List<?> streamEx(List<Integer> values, boolean parallel);
+
+        abstract List<?> loop(List<Integer> values);
+
+        private static StreamEx<Integer> of(List<Integer> values, boolean parallel) {
+            StreamEx<Integer> stream = StreamEx.of(values);
+            return parallel ? stream.parallel() : stream;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Provider {
+
+        @Param({"PAIR_MAP", "SLIDING_WINDOW", "GROUP_RUNS", "COLLAPSE", "INTERVAL_MAP"})
+        Operation operation;
+        @Param({"10000", "1000000", "10000000"})
+        int size;
+
+        List<Integer> values;
+
+        /**
+         * Random walk that holds its value half of the time, so runs and small gaps are common.
+         */
+        @Setup
+        public void setup() {
+            Random random = Datasets.random();
+            values = new ArrayList<>(size);
+            int value = 0;
+            for (int i = 0; i < size; i++) {
+                if (random.nextBoolean()) {
+                    value += random.nextInt(5) - 2;
+                }
+                values.add(value);
+            }
+            List<?> expected = operation.loop(values);
+            if (!expected.equals(operation.streamEx(values, false))
+                    || !expected.equals(operation.streamEx(values, true))) {
+                throw new IllegalStateException(operation + " differs from its loop baseline");
+            }
+        }
+
+    }
+
+    @Benchmark
+    public void streamEx(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.operation.streamEx(provider.values, false));
+    }
+
+    @Benchmark
+    public void streamEx_parallel(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.operation.streamEx(provider.values, true));
+    }
+
+    @Benchmark
+    public void loop(Provider provider, Blackhole blackhole) {
+        blackhole.consume(provider.operation.loop(provider.values));
+    }
+
+}
@@ -0,0 +1,537 @@
+package jb.vavr;
+
+/**
+ * {@value #COUNT} message types for the dispatch matrix in {@link VavrPatternMatching}. Every constant has its own
+ * body, so each one is a distinct class and a call to {@link #route()} sees as many receiver types as the benchmark
+ * feeds it.
+ */
+public enum Message {
+
+    M0 { @Override String route() { return "r0"; } },
+    M1 { @Override String route() { return "r1"; } },
+    M2 { @Override String route() { return "r2"; } },
+    M3 { @Override String route() { return "r3"; } },
+    M4 { @Override String route() { return "r4"; } },
+    M5 { @Override String route() { return "r5"; } },
+    M6 { @Override String route() { return "r6"; } },
+    M7 { @Override String route() { return "r7"; } },
+    M8 { @Override String route() { return "r8"; } },
+    M9 { @Override String route() { return "r9"; } },
+    M10 { @Override String route() { return "r10"; } },
+    M11 { @Override String route() { return "r11"; } },
+    M12 { @Override String route() { return "r12"; } },
+    M13 { @Override String route() { return "r13"; } },
+    M14 { @Override String route() { return "r14"; } },
+    M15 { @Override String route() { return "r15"; } },
+    M16 { @Override String route() { return "r16"; } },
+    M17 { @Override String route() { return "r17"; } },
+    M18 { @Override String route() { return "r18"; } },
+    M19 { @Override String route() { return "r19"; } },
+    M20 { @Override String route() { return "r20"; } },
+    M21 { @Override String route() { return "r21"; } },
+    M22 { @Override String route() { return "r22"; } },
+    M23 { @Override String route() { return "r23"; } },
+    M24 { @Override String route() { return "r24"; } },
+    M25 { @Override String route() { return "r25"; } },
+    M26 { @Override String route() { return "r26"; } },
+    M27 { @Override String route() { return "r27"; } },
+    M28 { @Override String route() { return "r28"; } },
+    M29 { @Override String route() { return "r29"; } },
+    M30 { @Override String route() { return "r30"; } },
+    M31 { @Override String route() { return "r31"; } },
+    M32 { @Override String route() { return "r32"; } },
+    M33 { @Override String route() { return "r33"; } },
+    M34 { @Override String route() { return "r34"; } },
+    M35 { @Override String route() { return "r35"; } },
+    M36 { @Override String route() { return "r36"; } },
+    M37 { @Override String route() { return "r37"; } },
+    M38 { @Override String route() { return "r38"; } },
+    M39 { @Override String route() { return "r39"; } },
+    M40 { @Override String route() { return "r40"; } },
+    M41 { @Override String route() { return "r41"; } },
+    M42 { @Override String route() { return "r42"; } },
+    M43 { @Override String route() { return "r43"; } },
+    M44 { @Override String route() { return "r44"; } },
+    M45 { @Override String route() { return "r45"; } },
+    M46 { @Override String route() { return "r46"; } },
+    M47 { @Override String route() { return "r47"; } },
+    M48 { @Override String route() { return "r48"; } },
+    M49 { @Override String route() { return "r49"; } },
+    M50 { @Override String route() { return "r50"; } },
+    M51 { @Override String route() { return "r51"; } },
+    M52 { @Override String route() { return "r52"; } },
+    M53 { @Override String route() { return "r53"; } },
+    M54 { @Override String route() { return "r54"; } },
+    M55 { @Override String route() { return "r55"; } },
+    M56 { @Override String route() { return "r56"; } },
+    M57 { @Override String route() { return "r57"; } },
+    M58 { @Override String route() { return "r58"; } },
+    M59 { @Override String route() { return "r59"; } },
+    M60 { @Override String route() { return "r60"; } },
+    M61 { @Override String route() { return "r61"; } },
+    M62 { @Override String route() { return "r62"; } },
+    M63 { @Override String route() { return "r63"; } },
+    M64 { @Override String route() { return "r64"; } },
+    M65 { @Override String route() { return "r65"; } },
+    M66 { @Override String route() { return "r66"; } },
+    M67 { @Override String route() { return "r67"; } },
+    M68 { @Override String route() { return "r68"; } },
+    M69 { @Override String route() { return "r69"; } },
+    M70 { @Override String route() { return "r70"; } },
+    M71 { @Override String route() { return "r71"; } },
+    M72 { @Override String route() { return "r72"; } },
+    M73 { @Override String route() { return "r73"; } },
+    M74 { @Override String route() { return "r74"; } },
+    M75 { @Override String route() { return "r75"; } },
+    M76 { @Override String route() { return "r76"; } },
+    M77 { @Override String route() { return "r77"; } },
+    M78 { @Override String route() { return "r78"; } },
+    M79 { @Override String route() { return "r79"; } },
+    M80 { @Override String route() { return "r80"; } },
+    M81 { @Override String route() { return "r81"; } },
+    M82 { @Override String route() { return "r82"; } },
+    M83 { @Override String route() { return "r83"; } },
+    M84 { @Override String route() { return "r84"; } },
+    M85 { @Override String route() { return "r85"; } },
+    M86 { @Override String route() { return "r86"; } },
+    M87 { @Override String route() { return "r87"; } },
+    M88 { @Override String route() { return "r88"; } },
+    M89 { @Override String route() { return "r89"; } },
+    M90 { @Override String route() { return "r90"; } },
+    M91 { @Override String route() { return "r91"; } },
+    M92 { @Override String route() { return "r92"; } },
+    M93 { @Override String route() { return "r93"; } },
+    M94 { @Override String route() { return "r94"; } },
+    M95 { @Override String route() { return "r95"; } },
+    M96 { @Override String route() { return "r96"; } },
+    M97 { @Override String route() { return "r97"; } },
+    M98 { @Override String route() { return "r98"; } },
+    M99 { @Override String route() { return "r99"; } },
+    M100 { @Override String route() { return "r100"; } },
+    M101 { @Override String route() { return "r101"; } },
+    M102 { @Override String route() { return "r102"; } },
+    M103 { @Override String route() { return "r103"; } },
+    M104 { @Override String route() { return "r104"; } },
+    M105 { @Override String route() { return "r105"; } },
+    M106 { @Override String route() { return "r106"; } },
+    M107 { @Override String route() { return "r107"; } },
+    M108 { @Override String route() { return "r108"; } },
+    M109 { @Override String route() { return "r109"; } },
+    M110 { @Override String route() { return "r110"; } },
+    M111 { @Override String route() { return "r111"; } },
+    M112 { @Override String route() { return "r112"; } },
+    M113 { @Override String route() { return "r113"; } },
+    M114 { @Override String route() { return "r114"; } },
+    M115 { @Override String route() { return "r115"; } },
+    M116 { @Override String route() { return "r116"; } },
+    M117 { @Override String route() { return "r117"; } },
+    M118 { @Override String route() { return "r118"; } },
+    M119 { @Override String route() { return "r119"; } },
+    M120 { @Override String route() { return "r120"; } },
+    M121 { @Override String route() { return "r121"; } },
+    M122 { @Override String route() { return "r122"; } },
+    M123 { @Override String route() { return "r123"; } },
+    M124 { @Override String route() { return "r124"; } },
+    M125 { @Override String route() { return "r125"; } },
+    M126 { @Override String route() { return "r126"; } },
+    M127 { @Override String route() { return "r127"; } },
+    M128 { @Override String route() { return "r128"; } },
+    M129 { @Override String route() { return "r129"; } },
+    M130 { @Override String route() { return "r130"; } },
+    M131 { @Override String route() { return "r131"; } },
+    M132 { @Override String route() { return "r132"; } },
+    M133 { @Override String route() { return "r133"; } },
+    M134 { @Override String route() { return "r134"; } },
+    M135 { @Override String route() { return "r135"; } },
+    M136 { @Override String route() { return "r136"; } },
+    M137 { @Override String route() { return "r137"; } },
+    M138 { @Override String route() { return "r138"; } },
+    M139 { @Override String route() { return "r139"; } },
+    M140 { @Override String route() { return "r140"; } },
+    M141 { @Override String route() { return "r141"; } },
+    M142 { @Override String route() { return "r142"; } },
+    M143 { @Override String route() { return "r143"; } },
+    M144 { @Override String route() { return "r144"; } },
+    M145 { @Override String route() { return "r145"; } },
+    M146 { @Override String route() { return "r146"; } },
+    M147 { @Override String route() { return "r147"; } },
+    M148 { @Override String route() { return "r148"; } },
+    M149 { @Override String route() { return "r149"; } },
+    M150 { @Override String route() { return "r150"; } },
+    M151 { @Override String route() { return "r151"; } },
+    M152 { @Override String route() { return "r152"; } },
+    M153 { @Override String route() { return "r153"; } },
+    M154 { @Override String route() { return "r154"; } },
+    M155 { @Override String route() { return "r155"; } },
+    M156 { @Override String route() { return "r156"; } },
+    M157 { @Override String route() { return "r157"; } },
+    M158 { @Override String route() { return "r158"; } },
+    M159 { @Override String route() { return "r159"; } },
+    M160 { @Override String route() { return "r160"; } },
+    M161 { @Override String route() { return "r161"; } },
+    M162 { @Override String route() { return "r162"; } },
+    M163 { @Override String route() { return "r163"; } },
+    M164 { @Override String route() { return "r164"; } },
+    M165 { @Override String route() { return "r165"; } },
+    M166 { @Override String route() { return "r166"; } },
+    M167 { @Override String route() { return "r167"; } },
+    M168 { @Override String route() { return "r168"; } },
+    M169 { @Override String route() { return "r169"; } },
+    M170 { @Override String route() { return "r170"; } },
+    M171 { @Override String route() { return "r171"; } },
+    M172 { @Override String route() { return "r172"; } },
+    M173 { @Override String route() { return "r173"; } },
+    M174 { @Override String route() { return "r174"; } },
+    M175 { @Override String route() { return "r175"; } },
+    M176 { @Override String route() { return "r176"; } },
+    M177 { @Override String route() { return "r177"; } },
+    M178 { @Override String route() { return "r178"; } },
+    M179 { @Override String route() { return "r179"; } },
+    M180 { @Override String route() { return "r180"; } },
+    M181 { @Override String route() { return "r181"; } },
+    M182 { @Override String route() { return "r182"; } },
+    M183 { @Override String route() { return "r183"; } },
+    M184 { @Override String route() { return "r184"; } },
+    M185 { @Override String route() { return "r185"; } },
+    M186 { @Override String route() { return "r186"; } },
+    M187 { @Override String route() { return "r187"; } },
+    M188 { @Override String route() { return "r188"; } },
+    M189 { @Override String route() { return "r189"; } },
+    M190 { @Override String route() { return "r190"; } },
+    M191 { @Override String route() { return "r191"; } },
+    M192 { @Override String route() { return "r192"; } },
+    M193 { @Override String route() { return "r193"; } },
+    M194 { @Override String route() { return "r194"; } },
+    M195 { @Override String route() { return "r195"; } },
+    M196 { @Override String route() { return "r196"; } },
+    M197 { @Override String route() { return "r197"; } },
+    M198 { @Override String route() { return "r198"; } },
+    M199 { @Override String route() { return "r199"; } },
+    M200 { @Override String route() { return "r200"; } },
+    M201 { @Override String route() { return "r201"; } },
+    M202 { @Override String route() { return "r202"; } },
+    M203 { @Override String route() { return "r203"; } },
+    M204 { @Override String route() { return "r204"; } },
+    M205 { @Override String route() { return "r205"; } },
+    M206 { @Override String route() { return "r206"; } },
+    M207 { @Override String route() { return "r207"; } },
+    M208 { @Override String route() { return "r208"; } },
+    M209 { @Override String route() { return "r209"; } },
+    M210 { @Override String route() { return "r210"; } },
+    M211 { @Override String route() { return "r211"; } },
+    M212 { @Override String route() { return "r212"; } },
+    M213 { @Override String route() { return "r213"; } },
+    M214 { @Override String route() { return "r214"; } },
+    M215 { @Override String route() { return "r215"; } },
+    M216 { @Override String route() { return "r216"; } },
+    M217 { @Override String route() { return "r217"; } },
+    M218 { @Override String route() { return "r218"; } },
+    M219 { @Override String route() { return "r219"; } },
+    M220 { @Override String route() { return "r220"; } },
+    M221 { @Override String route() { return "r221"; } },
+    M222 { @Override String route() { return "r222"; } },
+    M223 { @Override String route() { return "r223"; } },
+    M224 { @Override String route() { return "r224"; } },
+    M225 { @Override String route() { return "r225"; } },
+    M226 { @Override String route() { return "r226"; } },
+    M227 { @Override String route() { return "r227"; } },
+    M228 { @Override String route() { return "r228"; } },
+    M229 { @Override String route() { return "r229"; } },
+    M230 { @Override String route() { return "r230"; } },
+    M231 { @Override String route() { return "r231"; } },
+    M232 { @Override String route() { return "r232"; } },
+    M233 { @Override String route() { return "r233"; } },
+    M234 { @Override String route() { return "r234"; } },
+    M235 { @Override String route() { return "r235"; } },
+    M236 { @Override String route() { return "r236"; } },
+    M237 { @Override String route() { return "r237"; } },
+    M238 { @Override String route() { return "r238"; } },
+    M239 { @Override String route() { return "r239"; } },
+    M240 { @Override String route() { return "r240"; } },
+    M241 { @Override String route() { return "r241"; } },
+    M242 { @Override String route() { return "r242"; } },
+    M243 { @Override String route() { return "r243"; } },
+    M244 { @Override String route() { return "r244"; } },
+    M245 { @Override String route() { return "r245"; } },
+    M246 { @Override String route() { return "r246"; } },
+    M247 { @Override String route() { return "r247"; } },
+    M248 { @Override String route() { return "r248"; } },
+    M249 { @Override String route() { return "r249"; } },
+    M250 { @Override String route() { return "r250"; } },
+    M251 { @Override String route() { return "r251"; } },
+    M252 { @Override String route() { return "r252"; } },
+    M253 { @Override String route() { return "r253"; } },
+    M254 { @Override String route() { return "r254"; } },
+    M255 { @Override String route() { return "r255"; } };
+
+    static final int COUNT = 256;
+
+    abstract String route();
+
+    static String label(int id) {
+        return "r" + id;
+    }
+
+    static String switchRoute(int id) {
+        switch (id) {
+            case 0: return "r0";
+            case 1: return "r1";
+            case 2: return "r2";
+            case 3: return "r3";
+            case 4: return "r4";
+            case 5: return "r5";
+            case 6: return "r6";
+            case 7: return "r7";
+            case 8: return "r8";
+            case 9: return "r9";
+            case 10: return "r10";
+            case 11: return "r11";
+            case 12: return "r12";
+            case 13: return "r13";
+            case 14: return "r14";
+            case 15: return "r15";
+            case 16: return "r16";
+            case 17: return "r17";
+            case 18: return "r18";
+            case 19: return "r19";
+            case 20: return "r20";
+            case 21: return "r21";
+            case 22: return "r22";
+            case 23: return "r23";
+            case 24: return "r24";
+            case 25: return "r25";
+            case 26: return "r26";
+            case 27: return "r27";
+            case 28: return "r28";
+            case 29: return "r29";
+            case 30: return "r30";
+            case 31: return "r31";
+            case 32: return "r32";
+            case 33: return "r33";
+            case 34: return "r34";
+            case 35: return "r35";
+            case 36: return "r36";
+            case 37: return "r37";
+            case 38: return "r38";
+            case 39: return "r39";
+            case 40: return "r40";
+            case 41: return "r41";
+            case 42: return "r42";
+            case 43: return "r43";
+            case 44: return "r44";
+            case 45: return "r45";
+            case 46: return "r46";
+            case 47: return "r47";
+            case 48: return "r48";
+            case 49: return "r49";
+            case 50: return "r50";
+            case 51: return "r51";
+            case 52: return "r52";
+            case 53: return "r53";
+            case 54: return "r54";
+            case 55: return "r55";
+            case 56: return "r56";
+            case 57: return "r57";
+            case 58: return "r58";
+            case 59: return "r59";
+            case 60: return "r60";
+            case 61: return "r61";
+            case 62: return "r62";
+            case 63: return "r63";
+            case 64: return "r64";
+            case 65: return "r65";
+            case 66: return "r66";
+            case 67: return "r67";
+            case 68: return "r68";
+            case 69: return "r69";
+            case 70: return "r70";
+            case 71: return "r71";
+            case 72: return "r72";
+            case 73: return "r73";
+            case 74: return "r74";
+            case 75: return "r75";
+            case 76: return "r76";
+            case 77: return "r77";
+            case 78: return "r78";
+            case 79: return "r79";
+            case 80: return "r80";
+            case 81: return "r81";
+            case 82: return "r82";
+            case 83: return "r83";
+            case 84: return "r84";
+            case 85: return "r85";
+            case 86: return "r86";
+            case 87: return "r87";
+            case 88: return "r88";
+            case 89: return "r89";
+            case 90: return "r90";
+            case 91: return "r91";
+            case 92: return "r92";
+            case 93: return "r93";
+            case 94: return "r94";
+            case 95: return "r95";
+            case 96: return "r96";
+            case 97: return "r97";
+            case 98: return "r98";
+            case 99: return "r99";
+            case 100: return "r100";
+            case 101: return "r101";
+            case 102: return "r102";
+            case 103: return "r103";
+            case 104: return "r104";
+            case 105: return "r105";
+            case 106: return "r106";
+            case 107: return "r107";
+            case 108: return "r108";
+            case 109: return "r109";
+            case 110: return "r110";
+            case 111: return "r111";
+            case 112: return "r112";
+            case 113: return "r113";
+            case 114: return "r114";
+            case 115: return "r115";
+            case 116: return "r116";
+            case 117: return "r117";
+            case 118: return "r118";
+            case 119: return "r119";
+            case 120: return "r120";
+            case 121: return "r121";
+            case 122: return "r122";
+            case 123: return "r123";
+            case 124: return "r124";
+            case 125: return "r125";
+            case 126: return "r126";
+            case 127: return "r127";
+            case 128: return "r128";
+            case 129: return "r129";
+            case 130: return "r130";
+            case 131: return "r131";
+            case 132: return "r132";
+            case 133: return "r133";
+            case 134: return "r134";
+            case 135: return "r135";
+            case 136: return "r136";
+            case 137: return "r137";
+            case 138: return "r138";
+            case 139: return "r139";
+            case 140: return "r140";
+            case 141: return "r141";
+            case 142: return "r142";
+            case 143: return "r143";
+            case 144: return "r144";
+            case 145: return "r145";
+            case 146: return "r146";
+            case 147: return "r147";
+            case 148: return "r148";
+            case 149: return "r149";
+            case 150: return "r150";
+            case 151: return "r151";
+            case 152: return "r152";
+            case 153: return "r153";
+            case 154: return "r154";
+            case 155: return "r155";
+            case 156: return "r156";
+            case 157: return "r157";
+            case 158: return "r158";
+            case 159: return "r159";
+            case 160: return "r160";
+            case 161: return "r161";
+            case 162: return "r162";
+            case 163: return "r163";
+            case 164: return "r164";
+            case 165: return "r165";
+            case 166: return "r166";
+            case 167: return "r167";
+            case 168: return "r168";
+            case 169: return "r169";
+            case 170: return "r170";
+            case 171: return "r171";
+            case 172: return "r172";
+            case 173: return "r173";
+            case 174: return "r174";
+            case 175: return "r175";
+            case 176: return "r176";
+            case 177: return "r177";
+            case 178: return "r178";
+            case 179: return "r179";
+            case 180: return "r180";
+            case 181: return "r181";
+            case 182: return "r182";
+            case 183: return "r183";
+            case 184: return "r184";
+            case 185: return "r185";
+            case 186: return "r186";
+            case 187: return "r187";
+            case 188: return "r188";
+            case 189: return "r189";
+            case 190: return "r190";
+            case 191: return "r191";
+            case 192: return "r192";
+            case 193: return "r193";
+            case 194: return "r194";
+            case 195: return "r195";
+            case 196: return "r196";
+            case 197: return "r197";
+            case 198: return "r198";
+            case 199: return "r199";
+            case 200: return "r200";
+            case 201: return "r201";
+            case 202: return "r202";
+            case 203: return "r203";
+            case 204: return "r204";
+            case 205: return "r205";
+            case 206: return "r206";
+            case 207: return "r207";
+            case 208: return "r208";
+            case 209: return "r209";
+            case 210: return "r210";
+            case 211: return "r211";
+            case 212: return "r212";
+            case 213: return "r213";
+            case 214: return "r214";
+            case 215: return "r215";
+            case 216: return "r216";
+            case 217: return "r217";
+            case 218: return "r218";
+            case 219: return "r219";
+            case 220: return "r220";
+            case 221: return "r221";
+            case 222: return "r222";
+            case 223: return "r223";
+            case 224: return "r224";
+            case 225: return "r225";
+            case 226: return "r226";
+            case 227: return "r227";
+            case 228: return "r228";
+            case 229: return "r229";
+            case 230: return "r230";
+            case 231: return "r231";
+            case 232: return "r232";
+            case 233: return "r233";
+            case 234: return "r234";
+            case 235: return "r235";
+            case 236: return "r236";
+            case 237: return "r237";
+            case 238: return "r238";
+            case 239: return "r239";
+            case 240: return "r240";
+            case 241: return "r241";
+            case 242: return "r242";
+            case 243: return "r243";
+            case 244: return "r244";
+            case 245: return "r245";
+            case 246: return "r246";
+            case 247: return "r247";
+            case 248: return "r248";
+            case 249: return "r249";
+            case 250: return "r250";
+            case 251: return "r251";
+            case 252: return "r252";
+            case 253: return "r253";
+            case 254: return "r254";
+            case 255: return "r255";
+            default: throw new IllegalArgumentException("Unknown message id " + id);
+        }
+    }
+
+}
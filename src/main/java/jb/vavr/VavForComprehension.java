@@ -2,30 +2,75 @@ package jb.vavr;
 
 import io.vavr.API;
 import io.vavr.Tuple2;
+import io.vavr.collection.Array;
+import io.vavr.collection.Iterator;
+import io.vavr.collection.Stream;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.LongStream;
 
 import static io.vavr.API.For;
 import static io.vavr.API.Tuple;
 
 public class VavForComprehension {
 
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
+    /**
+     * Lazy cartesian search over {@code dimensions} axes of {@code size} values. Each combination is encoded as one
+     * {@code long}, and a combination matches when its innermost coordinate is the last one on its axis, so collecting
+     * {@code limit} matches visits about {@code limit * size} combinations however many axes there are. A
+     * {@code limit} of 1 is a first-match search. Thread-scoped, so each benchmark thread fills its own
+     * {@code found} buffer.
+     */
+    @State(Scope.Thread)
+    public static class Search {
+
+        @Param({"2", "3"})
+        int dimensions;
+        @Param({"100", "1000", "10000"})
+        int size;
+        @Param({"1", "1000"})
+        int limit;
+
+        Array<Long> axis;
+        long[] found;
+
+        @Setup
+        public void setup() {
+            axis = Array.range(0L, size);
+            found = new long[limit];
+        }
+
+        boolean matches(long code) {
+            return code % size == size - 1;
+        }
+
+    }
+
     public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
                 .include(VavForComprehension.class.getSimpleName())
                 .forks(1)
                 .threads(8)
                 .warmupIterations(1)
-                .measurementIterations(1)
-                .build();
-        new Runner(options).run();
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
     }
 
     @Benchmark
@@ -60,4 +105,67 @@ public class VavForComprehension {
         blackhole.consume(res);
     }
 
+    @Benchmark
+    public void vavr_forIterator(Search search, Blackhole blackhole) {
+        long n = search.size;
+        Iterator<Long> combinations = search.dimensions == 2
+                ? For(search.axis, search.axis).yield((i, j) -> i * n + j)
+                : For(search.axis, search.axis, search.axis).yield((i, j, k) -> (i * n + j) * n + k);
+        combinations.filter(search::matches).take(search.limit).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void vavr_stream(Search search, Blackhole blackhole) {
+        long n = search.size;
+        Stream<Long> axis = Stream.ofAll(search.axis);
+        Stream<Long> combinations = search.dimensions == 2
+                ? axis.flatMap(i -> axis.map(j -> i * n + j))
+                : axis.flatMap(i -> axis.flatMap(j -> axis.map(k -> (i * n + j) * n + k)));
+        combinations.filter(search::matches).take(search.limit).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void java_flatMap(Search search, Blackhole blackhole) {
+        long n = search.size;
+        LongStream combinations = search.dimensions == 2
+                ? LongStream.range(0, n).flatMap(i -> LongStream.range(0, n).map(j -> i * n + j))
+                : LongStream.range(0, n).flatMap(i -> LongStream.range(0, n)
+                        .flatMap(j -> LongStream.range(0, n).map(k -> (i * n + j) * n + k)));
+        combinations.filter(search::matches).limit(search.limit).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void java_primitiveLoop(Search search, Blackhole blackhole) {
+        long n = search.size;
+        long[] found = search.found;
+        int count = 0;
+        if (search.dimensions == 2) {
+            search:
+            for (long i = 0; i < n; i++) {
+                for (long j = 0; j < n; j++) {
+                    long code = i * n + j;
+                    if (search.matches(code)) {
+                        found[count++] = code;
+                        if (count == found.length) break search;
+                    }
+                }
+            }
+        } else {
+            search:
+            for (long i = 0; i < n; i++) {
+                for (long j = 0; j < n; j++) {
+                    for (long k = 0; k < n; k++) {
+                        long code = (i * n + j) * n + k;
+                        if (search.matches(code)) {
+                            found[count++] = code;
+                            if (count == found.length) break search;
+                        }
+                    }
+                }
+            }
+        }
+        blackhole.consume(count);
+        blackhole.consume(found);
+    }
+
 }
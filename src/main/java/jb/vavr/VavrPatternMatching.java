@@ -1,34 +1,51 @@
 package jb.vavr;
 
+import io.vavr.API;
+import jb.dataset.Dataset;
+import jb.dataset.Datasets;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.profile.Profiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
-import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static io.vavr.API.$;
 import static io.vavr.API.Case;
 import static io.vavr.API.Match;
+import static io.vavr.Predicates.instanceOf;
 
 public class VavrPatternMatching {
 
+    public static final List<Class<? extends Profiler>> PROFILERS = Collections.singletonList(GCProfiler.class);
+
+    private static final int BATCH = 1024;
+
     public static void main(String[] args) throws RunnerException {
-        Options options = new OptionsBuilder()
+        ChainedOptionsBuilder builder = new OptionsBuilder()
                 .include(VavrPatternMatching.class.getSimpleName())
                 .forks(1)
                 .threads(8)
                 .warmupIterations(1)
-                .measurementIterations(1)
-                .build();
-        new Runner(options).run();
+                .measurementIterations(1);
+        PROFILERS.forEach(builder::addProfiler);
+        new Runner(builder.build()).run();
     }
 
     @Benchmark
@@ -87,8 +104,283 @@ public class VavrPatternMatching {
                 .collect(Collectors.toList());
         io.vavr.collection.List<Integer> vavrList = io.vavr.collection.List.range(0, 1000)
                 .map(i -> i % 4);
-        int i = new Random().nextInt(5);
+        int i = Datasets.random().nextInt(5);
+
+    }
+
+    public enum Input {
+        PREDICTABLE {
+            @Override
+            int[] ids(int cases) {
+                int[] ids = new int[BATCH];
+                Arrays.fill(ids, cases - 1);
+                return ids;
+            }
+        },
+        RANDOM {
+            @Override
+            int[] ids(int cases) {
+                int[] ids = new int[BATCH];
+                Datasets.values(Dataset.UNIFORM, BATCH, cases, 0).get(ids);
+                return ids;
+            }
+        };
+
+        abstract int[] ids(int cases);
+    }
+
+    /**
+     * Dispatch matrix: {@value #BATCH} inputs over {@code cases} ids or {@link Message} types per invocation.
+     * {@code PREDICTABLE} always hits the last case, the worst spot for a sequential chain, but keeps branches and
+     * call sites monomorphic; {@code RANDOM} spreads them over all cases. {@link Message#switchRoute(int)} always
+     * compiles to one {@value Message#COUNT}-arm switch, of which only the first {@code cases} are taken.
+     */
+    @State(Scope.Benchmark)
+    public static class Dispatch {
 
+        @Param({"4", "16", "64", "256"})
+        int cases;
+        @Param({"PREDICTABLE", "RANDOM"})
+        Input input;
+
+        int[] ids;
+        Message[] messages;
+        String[] labels;
+        Map<Integer, String> labelsById;
+        Map<Class<?>, String> labelsByType;
+        Class<?>[] types;
+        IntPredicate[] ranges;
+        API.Match.Case<Integer, String>[] valueCases;
+        API.Match.Case<Message, String>[] typeCases;
+        API.Match.Case<Integer, String>[] predicateCases;
+
+        @Setup
+        public void setup() {
+            ids = input.ids(cases);
+            messages = new Message[BATCH];
+            for (int j = 0; j < BATCH; j++) {
+                messages[j] = Message.values()[ids[j]];
+            }
+            labels = new String[cases];
+            labelsById = new HashMap<>();
+            labelsByType = new HashMap<>();
+            types = new Class<?>[cases];
+            ranges = new IntPredicate[cases];
+            valueCases = newArray(cases);
+            typeCases = newArray(cases);
+            predicateCases = newArray(cases);
+            for (int id = 0; id < cases; id++) {
+                String label = Message.label(id);
+                int bound = id + 1;
+                labels[id] = label;
+                labelsById.put(id, label);
+                types[id] = Message.values()[id].getClass();
+                labelsByType.put(types[id], label);
+                ranges[id] = value -> value < bound;
+                valueCases[id] = Case($(id), label);
+                typeCases[id] = Case($(instanceOf(types[id])), label);
+                predicateCases[id] = Case($(value -> value < bound), label);
+            }
+        }
+
+    }
+
+    /**
+     * An array of {@code length} nulls typed by the call site, without an unchecked cast: the compiler creates the
+     * empty varargs array of the inferred element type, which never holds anything but nulls here.
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    static <T> T[] newArray(int length, T... empty) {
+        return Arrays.copyOf(empty, length);
+    }
+
+    /**
+     * The {@link Dispatch} inputs for the case counts written out inline, where every match builds its cases at the
+     * call site as idiomatic Vavr code does, so {@code gc.alloc.rate.norm} includes their allocation. Matches are
+     * written out for 4 and 16 cases only; 64 and 256 literal cases would be generated code rather than idiomatic
+     * Vavr, and any other {@code cases} fails on the first id the 16-case match lacks.
+     */
+    @State(Scope.Benchmark)
+    public static class InlineDispatch {
+
+        @Param({"4", "16"})
+        int cases;
+        @Param({"PREDICTABLE", "RANDOM"})
+        Input input;
+
+        int[] ids;
+        Message[] messages;
+
+        @Setup
+        public void setup() {
+            ids = input.ids(cases);
+            messages = new Message[BATCH];
+            for (int j = 0; j < BATCH; j++) {
+                messages[j] = Message.values()[ids[j]];
+            }
+        }
+
+    }
+
+    static String matchValue4(int id) {
+        return Match(id).of(
+                Case($(0), "r0"),
+                Case($(1), "r1"),
+                Case($(2), "r2"),
+                Case($(3), "r3"));
+    }
+
+    static String matchValue16(int id) {
+        return Match(id).of(
+                Case($(0), "r0"),
+                Case($(1), "r1"),
+                Case($(2), "r2"),
+                Case($(3), "r3"),
+                Case($(4), "r4"),
+                Case($(5), "r5"),
+                Case($(6), "r6"),
+                Case($(7), "r7"),
+                Case($(8), "r8"),
+                Case($(9), "r9"),
+                Case($(10), "r10"),
+                Case($(11), "r11"),
+                Case($(12), "r12"),
+                Case($(13), "r13"),
+                Case($(14), "r14"),
+                Case($(15), "r15"));
+    }
+
+    static String matchType4(Message message) {
+        return Match(message).of(
+                Case($(instanceOf(Message.M0.getClass())), "r0"),
+                Case($(instanceOf(Message.M1.getClass())), "r1"),
+                Case($(instanceOf(Message.M2.getClass())), "r2"),
+                Case($(instanceOf(Message.M3.getClass())), "r3"));
+    }
+
+    static String matchType16(Message message) {
+        return Match(message).of(
+                Case($(instanceOf(Message.M0.getClass())), "r0"),
+                Case($(instanceOf(Message.M1.getClass())), "r1"),
+                Case($(instanceOf(Message.M2.getClass())), "r2"),
+                Case($(instanceOf(Message.M3.getClass())), "r3"),
+                Case($(instanceOf(Message.M4.getClass())), "r4"),
+                Case($(instanceOf(Message.M5.getClass())), "r5"),
+                Case($(instanceOf(Message.M6.getClass())), "r6"),
+                Case($(instanceOf(Message.M7.getClass())), "r7"),
+                Case($(instanceOf(Message.M8.getClass())), "r8"),
+                Case($(instanceOf(Message.M9.getClass())), "r9"),
+                Case($(instanceOf(Message.M10.getClass())), "r10"),
+                Case($(instanceOf(Message.M11.getClass())), "r11"),
+                Case($(instanceOf(Message.M12.getClass())), "r12"),
+                Case($(instanceOf(Message.M13.getClass())), "r13"),
+                Case($(instanceOf(Message.M14.getClass())), "r14"),
+                Case($(instanceOf(Message.M15.getClass())), "r15"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vavr_matchValue(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(Match(id).of(dispatch.valueCases));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vavr_matchValueInline(InlineDispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(dispatch.cases == 4 ? matchValue4(id) : matchValue16(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_switchValue(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(Message.switchRoute(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_mapValue(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(dispatch.labelsById.get(id));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_arrayValue(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(dispatch.labels[id]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vavr_matchType(Dispatch dispatch, Blackhole blackhole) {
+        for (Message message : dispatch.messages) {
+            blackhole.consume(Match(message).of(dispatch.typeCases));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vavr_matchTypeInline(InlineDispatch dispatch, Blackhole blackhole) {
+        for (Message message : dispatch.messages) {
+            blackhole.consume(dispatch.cases == 4 ? matchType4(message) : matchType16(message));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_instanceofType(Dispatch dispatch, Blackhole blackhole) {
+        for (Message message : dispatch.messages) {
+            String res = null;
+            for (int id = 0; id < dispatch.types.length && res == null; id++) {
+                if (dispatch.types[id].isInstance(message)) res = dispatch.labels[id];
+            }
+            blackhole.consume(res);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_mapType(Dispatch dispatch, Blackhole blackhole) {
+        for (Message message : dispatch.messages) {
+            blackhole.consume(dispatch.labelsByType.get(message.getClass()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_virtualType(Dispatch dispatch, Blackhole blackhole) {
+        for (Message message : dispatch.messages) {
+            blackhole.consume(message.route());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void vavr_matchPredicate(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            blackhole.consume(Match(id).of(dispatch.predicateCases));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void java_predicateChain(Dispatch dispatch, Blackhole blackhole) {
+        for (int id : dispatch.ids) {
+            String res = null;
+            for (int j = 0; j < dispatch.ranges.length && res == null; j++) {
+                if (dispatch.ranges[j].test(id)) res = dispatch.labels[j];
+            }
+            blackhole.consume(res);
+        }
     }
 
 }